@@ -0,0 +1,241 @@
+package gameresult;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manages the game results of a {@link JsonLinesResultManager} log, keeping
+ * the parsed results in memory.
+ * <p>
+ * The results are published as an immutable snapshot in a volatile field,
+ * together with a {@link Leaderboard} of the best results updated with
+ * every result read, so {@link #getAll()} and {@link #getBest(int)} neither
+ * lock nor touch the disk, and the latter takes time proportional to the
+ * limit only. Reading the whole log again publishes the new results and
+ * board with a single write, so readers never see a missing snapshot. The
+ * cache remembers the offset reached in the active segment of the
+ * log: adding a result, or a change of the log by another process reported
+ * by a {@link WatchService}, only reads the lines appended after it. The
+ * whole log is read again only when the active segment was sealed or
+ * replaced in the meantime. New results are written past the end of the
+ * array shared with the previous snapshots, which never see them, so
+ * appending does not copy the results.
+ * <p>
+ * Use {@link #of(Path)} to get the manager of a log, which is created and
+ * read on the first call only.
+ */
+public final class CachingResultManager implements IJsonResultManager {
+
+    private static final Map<Path, CachingResultManager> INSTANCES = new HashMap<>();
+
+    private final JsonLinesResultManager log;
+    private volatile View view;
+    private Leaderboard leaderboard;
+    private GameResult[] results;
+    private int size;
+    private JsonLinesResultManager.Position position;
+
+    /**
+     * The results and the leaderboard published together.
+     *
+     * @param results the results, which are immutable
+     * @param leaderboard the leaderboard of the results
+     */
+    private record View(List<GameResult> results, Leaderboard leaderboard) {
+    }
+
+    /**
+     * Creates a manager and reads the whole log.
+     *
+     * @param log the log
+     * @param watch whether the log is watched for changes by other processes
+     * @throws IOException if the log cannot be read
+     */
+    CachingResultManager(JsonLinesResultManager log, boolean watch) throws IOException {
+        this.log = log;
+        reload();
+        if (watch) {
+            watch();
+        }
+    }
+
+    /**
+     * Returns the manager of a log, shared by all the callers in the process.
+     *
+     * @param filePath the path of the active segment of the log, see
+     *                 {@link JsonLinesResultManager#JsonLinesResultManager(Path)}
+     * @return the manager
+     * @throws IOException if the log cannot be read
+     */
+    public static CachingResultManager of(@NonNull Path filePath) throws IOException {
+        var path = filePath.toAbsolutePath().normalize();
+        synchronized (INSTANCES) {
+            var manager = INSTANCES.get(path);
+            if (manager == null) {
+                manager = new CachingResultManager(new JsonLinesResultManager(path), true);
+                INSTANCES.put(path, manager);
+            }
+            return manager;
+        }
+    }
+
+    /**
+     * Appends a new game result to the log, and to the cache with the results
+     * added by other processes since the last read.
+     *
+     * @param result the game result to add
+     * @return the updated list of game results, which is immutable
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> add(@NonNull GameResult result) throws IOException {
+        log.add(result);
+        refresh();
+        return view.results();
+    }
+
+    /**
+     * Retrieves all game results from the cache, in the order they were added.
+     *
+     * @return the list of game results, which is immutable
+     */
+    @Override
+    public List<GameResult> getAll() {
+        return view.results();
+    }
+
+    /**
+     * Retrieves the best game results by duration from the leaderboard kept
+     * in memory, unless more results are asked than the leaderboard keeps.
+     *
+     * @param limit the maximum number of results to retrieve
+     * @return the list of the best game results
+     */
+    @Override
+    public List<GameResult> getBest(int limit) {
+        var current = view;
+        var board = current.leaderboard();
+        if (limit > board.getCapacity()) {
+            return current.results().stream()
+                    .sorted(Leaderboard.Ordering.BY_DURATION.comparator())
+                    .limit(limit)
+                    .toList();
+        }
+        return board.getBest(Leaderboard.Ordering.BY_DURATION, limit);
+    }
+
+    /**
+     * {@return the leaderboard of the cached results, which is updated as results are read}
+     */
+    public Leaderboard getLeaderboard() {
+        return view.leaderboard();
+    }
+
+    /**
+     * Reads the results appended to the log since the last read, or the whole
+     * log again if its active segment was sealed or replaced.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void refresh() throws IOException {
+        var next = log.readFrom(position, this::append);
+        if (next == null) {
+            reload();
+            return;
+        }
+        position = next;
+        publish();
+    }
+
+    private synchronized void reload() throws IOException {
+        var all = new ArrayList<GameResult>();
+        var board = new Leaderboard();
+        position = log.read(result -> {
+            all.add(result);
+            board.offer(result);
+        });
+        results = all.toArray(new GameResult[Math.max(16, all.size())]);
+        size = all.size();
+        leaderboard = board;
+        view = new View(Collections.unmodifiableList(Arrays.asList(results).subList(0, size)), board);
+    }
+
+    private void append(GameResult result) {
+        if (size == results.length) {
+            results = Arrays.copyOf(results, 2 * size);
+        }
+        results[size++] = result;
+        leaderboard.offer(result);
+    }
+
+    private void publish() {
+        if (view.results().size() != size) {
+            view = new View(Collections.unmodifiableList(Arrays.asList(results).subList(0, size)), leaderboard);
+        }
+    }
+
+    /**
+     * Starts a daemon thread refreshing the cache whenever a file of the log
+     * changes. The thread stops if the directory of the log is deleted.
+     */
+    private void watch() {
+        var file = log.getFilePath();
+        var name = file.getFileName().toString();
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            Logger.warn("Failed to watch {}, changes by other processes will not be seen: {}", file,
+                    e.getMessage());
+            return;
+        }
+        var thread = new Thread(() -> {
+            try (service) {
+                for (boolean valid = true; valid; ) {
+                    var key = service.take();
+                    boolean changed = false;
+                    for (var event : key.pollEvents()) {
+                        var context = event.context();
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || context instanceof Path path && isLogFile(path.toString(), name);
+                    }
+                    if (changed) {
+                        try {
+                            refresh();
+                        } catch (IOException e) {
+                            Logger.warn("Failed to refresh the results of {}: {}", file, e.getMessage());
+                        }
+                    }
+                    valid = key.reset();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                Logger.warn("Failed to close the watch service of {}: {}", file, e.getMessage());
+            }
+        }, "result-cache-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static boolean isLogFile(String fileName, String name) {
+        return fileName.equals(name)
+                || fileName.startsWith(name + ".") && !fileName.endsWith(".lock") && !fileName.endsWith(".tmp")
+                && !fileName.endsWith(".top");
+    }
+}
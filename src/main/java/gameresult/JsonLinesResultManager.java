@@ -0,0 +1,737 @@
+package gameresult;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Manages the game results stored as JSON Lines, one result per line, in an
+ * append-only log.
+ * <p>
+ * Adding a result appends a single line to the active segment, the file
+ * given, so it takes constant time whatever the number of results. When the
+ * active segment exceeds the segment size, it is sealed by renaming it to
+ * {@code <file>.<sequence>}, and a background thread folds the sealed
+ * segments into a compacted segment, {@code <file>.base.<sequence>},
+ * dropping the lines that are not valid results, e.g. a line cut short by a
+ * crash. The compacted segment is written to a temporary file and moved into
+ * place atomically, and the segments folded into it are deleted afterwards,
+ * so readers, which ignore the segments with a sequence number not above
+ * that of the latest compacted segment, never see a result twice.
+ * <p>
+ * Changes to the set of segments happen under a lock file, {@code <file>.lock},
+ * so several processes can share the log. A file holding a JSON array, as
+ * written by {@link JsonResultManager}, is converted to JSON Lines when the
+ * manager is created.
+ * <p>
+ * The best results are kept in a {@link Leaderboard} journaled beside the
+ * log, {@code <file>.top}, see {@link LeaderboardJournal}. Adding a result
+ * appends a line to the journal with the position reached in the log, so
+ * {@link #getBest(int)} does not read the log, and the results added after
+ * that position, e.g. by a process that crashed before updating the
+ * journal, are replayed when the board is next read.
+ */
+public class JsonLinesResultManager implements IJsonResultManager {
+
+    /**
+     * The size of the active segment above which it is sealed, by default.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 1L << 20;
+
+    private static final String BASE = "base.";
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "result-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private final Path filePath;
+    private final Path lockPath;
+    private final Object monitor;
+    private final long segmentBytes;
+    private final LeaderboardJournal journal;
+    private Object activeIdentity;
+    private long activeSequence;
+
+    /**
+     * Constructs a new JsonLinesResultManager with the specified file path
+     * and the default segment size.
+     *
+     * @param filePath the path of the active segment
+     * @throws IOException if an existing JSON array file cannot be converted
+     */
+    public JsonLinesResultManager(@NonNull Path filePath) throws IOException {
+        this(filePath, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Constructs a new JsonLinesResultManager with the specified file path
+     * and segment size.
+     *
+     * @param filePath the path of the active segment
+     * @param segmentBytes the size of the active segment above which it is sealed
+     * @throws IOException if an existing JSON array file cannot be converted
+     * @throws IllegalArgumentException if the segment size is not positive
+     */
+    public JsonLinesResultManager(@NonNull Path filePath, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("The segment size must be positive");
+        }
+        this.filePath = filePath.toAbsolutePath().normalize();
+        this.segmentBytes = segmentBytes;
+        lockPath = sibling("lock");
+        journal = new LeaderboardJournal(sibling("top"), Leaderboard.DEFAULT_CAPACITY);
+        monitor = MONITORS.computeIfAbsent(this.filePath, path -> new Object());
+        boolean sealed = locked(() -> {
+            migrate();
+            return !list().segments().isEmpty();
+        });
+        if (sealed) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * {@return the path of the active segment}
+     */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Appends a new game result to the log.
+     *
+     * @param result the game result to add
+     * @return the updated list of game results, which is read from the log
+     *         on first access only
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> add(@NonNull GameResult result) throws IOException {
+        var line = new StringWriter();
+        JacksonHelper.writeLine(line, result);
+        var bytes = ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8));
+        boolean sealed = locked(() -> {
+            var board = leaderboard();
+            long size;
+            try (var channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                size = channel.size();
+            }
+            var entered = board.offer(result) ? List.of(result) : List.<GameResult>of();
+            if (size < segmentBytes) {
+                journal.append(entered, activeSequence(), size);
+                return false;
+            }
+            long sequence = list().lastSequence() + 1;
+            Files.move(filePath, sibling(Long.toString(sequence)), StandardCopyOption.ATOMIC_MOVE);
+            activeIdentity = null;
+            journal.append(entered, sequence + 1, 0);
+            return true;
+        });
+        if (sealed) {
+            scheduleCompaction();
+        }
+        return new ResultsOnDemand(this);
+    }
+
+    /**
+     * Retrieves all game results from the log, in the order they were added.
+     * Invalid lines are skipped.
+     *
+     * @return the list of game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        var results = new ArrayList<GameResult>();
+        forEach(results::add);
+        return results;
+    }
+
+    /**
+     * Retrieves the best game results by duration from the leaderboard
+     * stored beside the log, {@code <file>.top}, without reading the log,
+     * unless more results are asked than the leaderboard keeps.
+     *
+     * @param limit the maximum number of results to retrieve
+     * @return the list of the best game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> getBest(int limit) throws IOException {
+        var board = getLeaderboard();
+        if (limit > board.getCapacity()) {
+            return IJsonResultManager.super.getBest(limit);
+        }
+        return board.getBest(Leaderboard.Ordering.BY_DURATION, limit);
+    }
+
+    /**
+     * Retrieves the leaderboard stored beside the log, {@code <file>.top},
+     * which is updated as results are added, see {@link LeaderboardJournal}.
+     * The results added to the log after the position recorded in the file,
+     * e.g. because a process crashed in between, are offered to the board
+     * first. The board is rebuilt from the whole log if the file is missing
+     * or invalid, or if the part of the log after the position has been
+     * compacted.
+     *
+     * @return the leaderboard, which this manager keeps updating as it adds results
+     * @throws IOException if an I/O error occurs
+     */
+    public Leaderboard getLeaderboard() throws IOException {
+        return locked(this::leaderboard);
+    }
+
+    /**
+     * Reads the game results of the log one line at a time, in the order
+     * they were added, without keeping them in memory. Invalid lines are
+     * skipped.
+     *
+     * @param action the action performed on every result
+     * @throws IOException if an I/O error occurs
+     */
+    public void forEach(Consumer<? super GameResult> action) throws IOException {
+        read(action);
+    }
+
+    /**
+     * The end of the last complete line read from the active segment.
+     *
+     * @param identity the identity of the active segment file, or {@code null} if there was none
+     * @param offset the number of bytes of the active segment read
+     * @param lastSequence the highest sequence number of the other segments when the log was read, which tells
+     *                     whether a segment was sealed since when there was no active segment
+     */
+    record Position(Object identity, long offset, long lastSequence) {
+    }
+
+    /**
+     * Reads all results like {@link #forEach(Consumer)} and returns the
+     * position reached in the active segment, from which
+     * {@link #readFrom(Position, Consumer)} reads the results added since.
+     * The active segment, which is at most about the segment size, is read
+     * while the lock is held, so the position matches the results read.
+     *
+     * @param action the action performed on every result
+     * @return the position reached in the active segment
+     * @throws IOException if an I/O error occurs
+     */
+    Position read(Consumer<? super GameResult> action) throws IOException {
+        record Opened(List<BufferedReader> readers, Tail tail) {
+        }
+        var opened = locked(() -> {
+            var snapshot = list();
+            var readers = open(snapshot);
+            try {
+                return new Opened(readers, readTail(null, 0, snapshot.lastSequence()));
+            } catch (IOException e) {
+                close(readers);
+                throw e;
+            }
+        });
+        try {
+            for (var reader : opened.readers()) {
+                for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                    var result = parse(line);
+                    if (result != null) {
+                        action.accept(result);
+                    }
+                }
+            }
+        } finally {
+            close(opened.readers());
+        }
+        return opened.tail().parse(action);
+    }
+
+    /**
+     * Reads the results appended to the active segment after a position.
+     *
+     * @param position the position returned by the previous read
+     * @param action the action performed on every result
+     * @return the new position, or {@code null} if the active segment was
+     *         sealed or replaced since, so the whole log has to be read again
+     * @throws IOException if an I/O error occurs
+     */
+    Position readFrom(Position position, Consumer<? super GameResult> action) throws IOException {
+        var tail = locked(() -> {
+            if (position.identity() == null && list().lastSequence() != position.lastSequence()) {
+                return null;
+            }
+            return readTail(position.identity(), position.offset(), position.lastSequence());
+        });
+        return tail != null ? tail.parse(action) : null;
+    }
+
+    /**
+     * The bytes of the active segment after an offset.
+     */
+    private record Tail(Object identity, long offset, long lastSequence, byte[] bytes) {
+
+        /**
+         * Parses the complete lines of the tail.
+         *
+         * @return the position after the last complete line
+         */
+        Position parse(Consumer<? super GameResult> action) {
+            int consumed = forEachLine(bytes, line -> {
+                var result = JsonLinesResultManager.parse(line);
+                if (result != null) {
+                    action.accept(result);
+                }
+            });
+            return new Position(identity, offset + consumed, lastSequence);
+        }
+    }
+
+    /**
+     * Reads the active segment after an offset. Must be called under the lock.
+     *
+     * @param identity the identity of the file the offset belongs to, or {@code null} to read from the start
+     * @param lastSequence the highest sequence number of the other segments
+     * @return the tail, or {@code null} if the file is not the one the offset belongs to any more
+     */
+    private Tail readTail(Object identity, long offset, long lastSequence) throws IOException {
+        if (!Files.exists(filePath)) {
+            return identity == null ? new Tail(null, 0, lastSequence, new byte[0]) : null;
+        }
+        var key = identity(Files.readAttributes(filePath, BasicFileAttributes.class));
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            var bytes = identity == null || identity.equals(key) ? readBytes(channel, offset) : null;
+            return bytes != null ? new Tail(key, offset, lastSequence, bytes) : null;
+        }
+    }
+
+    /**
+     * Brings the leaderboard up to date with its journal and the log. Must be
+     * called under the lock.
+     */
+    private Leaderboard leaderboard() throws IOException {
+        if (!journal.sync() || !replay()) {
+            var board = new Leaderboard();
+            var readers = open(list());
+            try {
+                for (var reader : readers) {
+                    for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                        var result = parse(line);
+                        if (result != null) {
+                            board.offer(result);
+                        }
+                    }
+                }
+            } finally {
+                close(readers);
+            }
+            var end = readTail(null, 0, 0).parse(board::offer);
+            journal.rewrite(board, activeSequence(), end.offset());
+        }
+        return journal.board();
+    }
+
+    /**
+     * Offers the results of the log after the position recorded in the
+     * journal to the board. Must be called under the lock.
+     *
+     * @return whether the results could be replayed, {@code false} if the
+     *         segment of the position is not in the log any more
+     */
+    private boolean replay() throws IOException {
+        var board = journal.board();
+        var entered = new ArrayList<GameResult>();
+        Consumer<String> offer = line -> {
+            var result = parse(line);
+            if (result != null && board.offer(result)) {
+                entered.add(result);
+            }
+        };
+        long sequence = journal.sequence();
+        long offset = journal.logOffset();
+        long active = activeSequence();
+        if (sequence > active) {
+            return false;
+        }
+        if (sequence < active) {
+            var segments = list().segments().tailMap(sequence, true);
+            if (!segments.containsKey(sequence)) {
+                return false;
+            }
+            for (var segment : segments.entrySet()) {
+                byte[] bytes;
+                try (var channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                    bytes = readBytes(channel, segment.getKey() == sequence ? offset : 0);
+                }
+                if (bytes == null) {
+                    return false;
+                }
+                forEachLine(bytes, offer);
+            }
+            offset = 0;
+        }
+        byte[] bytes;
+        if (Files.exists(filePath)) {
+            try (var channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                bytes = readBytes(channel, offset);
+            }
+        } else {
+            bytes = offset == 0 ? new byte[0] : null;
+        }
+        if (bytes == null) {
+            return false;
+        }
+        long end = offset + forEachLine(bytes, offer);
+        if (active != journal.sequence() || end != journal.logOffset()) {
+            journal.append(entered, active, end);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the sequence number the active segment will get when it is
+     * sealed, which is looked up again only when the active segment is a
+     * new file. Must be called under the lock.
+     */
+    private long activeSequence() throws IOException {
+        Object current = null;
+        try {
+            current = identity(Files.readAttributes(filePath, BasicFileAttributes.class));
+        } catch (NoSuchFileException e) {
+            // the active segment is created by the next add
+        }
+        if (current == null || !current.equals(activeIdentity)) {
+            activeSequence = list().lastSequence() + 1;
+            activeIdentity = current;
+        }
+        return activeSequence;
+    }
+
+    /**
+     * {@return an identity of a file, which stays the same when it is renamed or appended to}
+     *
+     * @param attributes the attributes of the file
+     */
+    static Object identity(BasicFileAttributes attributes) {
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    /**
+     * Reads a file from an offset to its end.
+     *
+     * @param channel the channel of the file
+     * @param offset the offset
+     * @return the bytes read, or {@code null} if the file is shorter than the offset
+     * @throws IOException if an I/O error occurs
+     */
+    static byte[] readBytes(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (size < offset) {
+            return null;
+        }
+        var buffer = ByteBuffer.allocate(Math.toIntExact(size - offset));
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+            // read until the end of the file as it was when opened
+        }
+        return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(),
+                buffer.position());
+    }
+
+    /**
+     * Performs an action on every complete line of UTF-8 bytes.
+     *
+     * @param bytes the bytes
+     * @param action the action performed on every line, without its line separator
+     * @return the number of bytes up to the end of the last complete line
+     */
+    static int forEachLine(byte[] bytes, Consumer<String> action) {
+        int start = 0;
+        for (int end = 0; end < bytes.length; end++) {
+            if (bytes[end] == '\n') {
+                action.accept(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+                start = end + 1;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Folds the sealed segments into a new compacted segment, dropping the
+     * invalid lines. This is done in the background after a segment is
+     * sealed, so it only needs to be called to compact the log right away.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void compact() throws IOException {
+        var snapshot = locked(this::list);
+        if (snapshot.segments().isEmpty()) {
+            return;
+        }
+        long sequence = snapshot.lastSequence();
+        var temp = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+        try {
+            var readers = locked(() -> open(snapshot));
+            try (var out = Files.newBufferedWriter(temp)) {
+                for (var reader : readers) {
+                    for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                        if (parse(line) != null) {
+                            out.write(line);
+                            out.write('\n');
+                        }
+                    }
+                }
+            } finally {
+                close(readers);
+            }
+            Files.move(temp, sibling(BASE + sequence), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        locked(() -> {
+            if (snapshot.base() != null) {
+                Files.deleteIfExists(snapshot.base());
+            }
+            for (var segment : snapshot.segments().values()) {
+                Files.deleteIfExists(segment);
+            }
+            return null;
+        });
+    }
+
+    private void scheduleCompaction() {
+        COMPACTOR.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                Logger.warn("Failed to compact {}: {}", filePath, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Converts the active segment to JSON Lines if it holds a JSON array.
+     */
+    private void migrate() throws IOException {
+        if (!Files.isRegularFile(filePath) || !startsWithArray(filePath)) {
+            return;
+        }
+        List<GameResult> results;
+        try (var in = Files.newInputStream(filePath)) {
+            results = JacksonHelper.readList(in, GameResult.class);
+        }
+        var temp = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+        try {
+            try (var out = Files.newBufferedWriter(temp)) {
+                for (var result : results) {
+                    JacksonHelper.writeLine(out, result);
+                }
+            }
+            Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean startsWithArray(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int c = in.read(); c >= 0; c = in.read()) {
+                if (!Character.isWhitespace(c)) {
+                    return c == '[';
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Parses a line of the log.
+     *
+     * @return the result, or {@code null} if the line is not a valid result
+     */
+    private static GameResult parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            var result = JacksonHelper.readLine(line, GameResult.class);
+            return result.getPlayerName() != null && result.getDuration() != null ? result : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The segments of the log, except the active one.
+     *
+     * @param base the latest compacted segment, or {@code null} if there is none
+     * @param segments the sealed segments not yet compacted, by sequence number
+     * @param lastSequence the highest sequence number in use, or {@code 0} if there is none
+     */
+    private record Snapshot(Path base, TreeMap<Long, Path> segments, long lastSequence) {
+    }
+
+    /**
+     * Lists the segments of the log. Must be called under the lock.
+     */
+    private Snapshot list() throws IOException {
+        var prefix = filePath.getFileName() + ".";
+        Path base = null;
+        long baseSequence = 0;
+        long lastSequence = 0;
+        var segments = new TreeMap<Long, Path>();
+        try (var files = Files.newDirectoryStream(filePath.getParent(), glob(prefix) + "*")) {
+            for (var file : files) {
+                var suffix = file.getFileName().toString().substring(prefix.length());
+                boolean compacted = suffix.startsWith(BASE);
+                long sequence = parseSequence(compacted ? suffix.substring(BASE.length()) : suffix);
+                if (sequence <= 0) {
+                    continue;
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+                if (!compacted) {
+                    segments.put(sequence, file);
+                } else if (sequence > baseSequence) {
+                    base = file;
+                    baseSequence = sequence;
+                }
+            }
+        }
+        return new Snapshot(base, new TreeMap<>(segments.tailMap(baseSequence, false)), lastSequence);
+    }
+
+    private static String glob(String name) {
+        return name.replaceAll("[\\\\*?\\[\\]{}]", "\\\\$0");
+    }
+
+    private static long parseSequence(String suffix) {
+        if (suffix.isEmpty() || suffix.length() > 18 || !suffix.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        return Long.parseLong(suffix);
+    }
+
+    /**
+     * Opens the compacted and sealed segments of a snapshot in order. Must be called under the
+     * lock, the segments can then be read after the lock is released.
+     */
+    private List<BufferedReader> open(Snapshot snapshot) throws IOException {
+        var files = new ArrayList<Path>();
+        if (snapshot.base() != null) {
+            files.add(snapshot.base());
+        }
+        files.addAll(snapshot.segments().values());
+        var readers = new ArrayList<BufferedReader>();
+        try {
+            for (var file : files) {
+                readers.add(Files.newBufferedReader(file));
+            }
+        } catch (IOException e) {
+            close(readers);
+            throw e;
+        }
+        return readers;
+    }
+
+    private static void close(List<BufferedReader> readers) throws IOException {
+        IOException failure = null;
+        for (var reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Path sibling(String suffix) {
+        return filePath.resolveSibling(filePath.getFileName() + "." + suffix);
+    }
+
+    /**
+     * An action performed under the lock of the log.
+     */
+    @FunctionalInterface
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Performs an action holding both the lock of this process and the lock
+     * file shared with other processes.
+     */
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        synchronized (monitor) {
+            try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var lock = channel.lock()) {
+                return action.run();
+            }
+        }
+    }
+
+    /**
+     * The list returned by {@link #add(GameResult)}, which reads the log
+     * only if it is used, so that adding a result stays cheap.
+     */
+    private static final class ResultsOnDemand extends AbstractList<GameResult> {
+        private final JsonLinesResultManager manager;
+        private List<GameResult> results;
+
+        ResultsOnDemand(JsonLinesResultManager manager) {
+            this.manager = manager;
+        }
+
+        private List<GameResult> results() {
+            if (results == null) {
+                try {
+                    results = manager.getAll();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public GameResult get(int index) {
+            return results().get(index);
+        }
+
+        @Override
+        public int size() {
+            return results().size();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package gameresult;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The best game results, maintained incrementally as results are added.
+ * <p>
+ * For every {@link Ordering}, the board keeps the best results overall and
+ * the best results of every player, up to its capacity K, in a sorted
+ * array. Offering a result finds its place by binary search and copies the
+ * array with the result inserted, in O(K) time whatever the number of
+ * results seen, and {@link #getBest(Ordering, int)} copies the first
+ * results of the array, so it does not depend on the number of results
+ * either. Results that compare equal keep the order they were offered in,
+ * as with a stable sort of all the results. The arrays are replaced rather
+ * than modified, so the board can be read without locking while a single
+ * thread at a time offers results. The board can be rebuilt from its
+ * {@linkplain #entries() entries}, which is how it is persisted.
+ */
+public final class Leaderboard {
+
+    /**
+     * The number of results kept for every ordering, by default.
+     */
+    public static final int DEFAULT_CAPACITY = 20;
+
+    /**
+     * The orderings of the results, from the best to the worst.
+     */
+    public enum Ordering {
+
+        /**
+         * By duration.
+         */
+        BY_DURATION(Comparator.comparing(GameResult::getDuration)),
+
+        /**
+         * By number of moves, then by duration.
+         */
+        BY_MOVES(Comparator.comparingInt(GameResult::getNumberOfMoves).thenComparing(GameResult::getDuration));
+
+        private final Comparator<GameResult> comparator;
+
+        Ordering(Comparator<GameResult> comparator) {
+            this.comparator = comparator;
+        }
+
+        /**
+         * {@return the comparator of the ordering, which puts the best results first}
+         */
+        public Comparator<GameResult> comparator() {
+            return comparator;
+        }
+    }
+
+    private static final Ordering[] ORDERINGS = Ordering.values();
+
+    private final int capacity;
+    private final TopList[] overall;
+    private final Map<String, TopList[]> players = new ConcurrentHashMap<>();
+    private long offered;
+
+    /**
+     * Creates an empty board with the default capacity.
+     */
+    public Leaderboard() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty board.
+     *
+     * @param capacity the number of results kept for every ordering, overall and for every player
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public Leaderboard(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.capacity = capacity;
+        overall = newLists();
+    }
+
+    /**
+     * {@return the number of results kept for every ordering}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Offers a result to the board. Must not be called by several threads at
+     * the same time.
+     *
+     * @param result the result
+     * @return whether the result is among the best results, overall or of its player, for any ordering
+     */
+    public boolean offer(@NonNull GameResult result) {
+        var own = players.computeIfAbsent(result.getPlayerName(), name -> newLists());
+        long ordinal = offered++;
+        boolean changed = false;
+        for (int i = 0; i < ORDERINGS.length; i++) {
+            changed |= overall[i].offer(result, ordinal);
+            changed |= own[i].offer(result, ordinal);
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the best results overall.
+     *
+     * @param ordering the ordering
+     * @param limit the maximum number of results
+     * @return the best results, from the best to the worst, at most the capacity of the board
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public List<GameResult> getBest(@NonNull Ordering ordering, int limit) {
+        return overall[ordering.ordinal()].first(limit);
+    }
+
+    /**
+     * Returns the best results of a player.
+     *
+     * @param playerName the name of the player
+     * @param ordering the ordering
+     * @param limit the maximum number of results
+     * @return the best results of the player, from the best to the worst, at most the capacity of the board
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public List<GameResult> getBest(@NonNull String playerName, @NonNull Ordering ordering, int limit) {
+        var own = players.get(playerName);
+        return own != null ? own[ordering.ordinal()].first(limit) : TopList.EMPTY.first(limit);
+    }
+
+    private TopList[] newLists() {
+        var lists = new TopList[ORDERINGS.length];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new TopList(ORDERINGS[i].comparator(), capacity);
+        }
+        return lists;
+    }
+
+    /**
+     * Returns the results kept in any list of the board, in the order they
+     * were offered. Offering them in this order to an empty board of the same
+     * capacity gives the same board, since every result left out was beaten,
+     * in every list, by results that are kept. Must not be called while a
+     * result is being offered.
+     *
+     * @return the results kept, each once
+     */
+    public List<GameResult> entries() {
+        var kept = new TreeMap<Long, GameResult>();
+        for (var list : overall) {
+            list.collect(kept);
+        }
+        for (var own : players.values()) {
+            for (var list : own) {
+                list.collect(kept);
+            }
+        }
+        return List.copyOf(kept.values());
+    }
+
+    /**
+     * The best results for an ordering, in a sorted array replaced on every
+     * change. The numbers of the results in the order they were offered are
+     * kept in a parallel array, which only the offering thread reads.
+     */
+    private static final class TopList {
+        static final TopList EMPTY = new TopList(Ordering.BY_DURATION.comparator(), 1);
+
+        private final Comparator<GameResult> comparator;
+        private final int capacity;
+        private volatile GameResult[] entries = new GameResult[0];
+        private long[] ordinals = new long[0];
+
+        TopList(Comparator<GameResult> comparator, int capacity) {
+            this.comparator = comparator;
+            this.capacity = capacity;
+        }
+
+        boolean offer(GameResult result, long ordinal) {
+            var current = entries;
+            int low = 0;
+            int high = current.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(current[middle], result) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low >= capacity) {
+                return false;
+            }
+            var next = new GameResult[Math.min(current.length + 1, capacity)];
+            var nextOrdinals = new long[next.length];
+            System.arraycopy(current, 0, next, 0, low);
+            System.arraycopy(ordinals, 0, nextOrdinals, 0, low);
+            next[low] = result;
+            nextOrdinals[low] = ordinal;
+            System.arraycopy(current, low, next, low + 1, next.length - low - 1);
+            System.arraycopy(ordinals, low, nextOrdinals, low + 1, next.length - low - 1);
+            ordinals = nextOrdinals;
+            entries = next;
+            return true;
+        }
+
+        void collect(Map<Long, GameResult> kept) {
+            var current = entries;
+            for (int i = 0; i < current.length; i++) {
+                kept.put(ordinals[i], current[i]);
+            }
+        }
+
+        List<GameResult> first(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("The limit must not be negative");
+            }
+            var current = entries;
+            return List.of(Arrays.copyOf(current, Math.min(limit, current.length)));
+        }
+    }
+}
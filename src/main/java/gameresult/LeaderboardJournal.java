@@ -0,0 +1,239 @@
+package gameresult;
+
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * The file of the {@link Leaderboard} of a {@link JsonLinesResultManager}
+ * log, an append-only journal in JSON Lines.
+ * <p>
+ * The first line holds the capacity of the board. Every other line holds
+ * the position in the log up to which the results have been offered to the
+ * board, and the result added at that position if it entered any list of
+ * the board. Adding a result to the log therefore appends a single short
+ * line to the journal, whatever the number of players, and replaying the
+ * journal gives the board back, see {@link Leaderboard#entries()}. When the
+ * journal has grown to about twice its size after the last rewrite, it is
+ * rewritten with the entries of the board only, so the cost of rewriting is
+ * constant per line appended on average. The journal is read incrementally:
+ * only the lines appended by other processes since the last read are read
+ * again. Must only be used under the lock of the log.
+ */
+final class LeaderboardJournal {
+
+    private final Path file;
+    private final int capacity;
+    private Leaderboard board;
+    private Object identity;
+    private long size;
+    private long lines;
+    private long rewrittenLines;
+    private long sequence;
+    private long logOffset;
+
+    /**
+     * The first line of the journal.
+     *
+     * @param capacity the capacity of the board
+     */
+    record Header(int capacity) {
+    }
+
+    /**
+     * A line of the journal after the first one.
+     *
+     * @param result the result that entered the board, or {@code null} if the line only records the position
+     * @param sequence the sequence number of the segment of the log the position is in
+     * @param offset the number of bytes of the segment offered to the board
+     */
+    record Delta(GameResult result, long sequence, long offset) {
+    }
+
+    /**
+     * Creates the journal of a board.
+     *
+     * @param file the file of the journal
+     * @param capacity the capacity of the board
+     */
+    LeaderboardJournal(Path file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+    }
+
+    /**
+     * {@return the board, which is {@code null} until the journal is read}
+     */
+    Leaderboard board() {
+        return board;
+    }
+
+    /**
+     * {@return the sequence number of the segment of the log up to which the results have been offered}
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * {@return the number of bytes of the segment up to which the results have been offered}
+     */
+    long logOffset() {
+        return logOffset;
+    }
+
+    /**
+     * Reads the lines appended to the journal since the last read, or the
+     * whole journal again if it was rewritten.
+     *
+     * @return whether the board is up to date with the journal, {@code false}
+     *         if the journal is missing or invalid and has to be rebuilt
+     * @throws IOException if an I/O error occurs
+     */
+    boolean sync() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            board = null;
+            return false;
+        }
+        var current = JsonLinesResultManager.identity(attributes);
+        if (board != null && current.equals(identity) && attributes.size() == size) {
+            return true;
+        }
+        boolean full = board == null || !current.equals(identity) || attributes.size() < size;
+        if (full) {
+            board = null;
+            identity = current;
+            size = 0;
+            lines = 0;
+        }
+        byte[] bytes;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            bytes = JsonLinesResultManager.readBytes(channel, size);
+        }
+        var invalid = new boolean[1];
+        size += JsonLinesResultManager.forEachLine(bytes, line -> {
+            if (invalid[0]) {
+                return;
+            }
+            if (board == null) {
+                var header = parse(line, Header.class);
+                if (header == null || header.capacity() != capacity) {
+                    invalid[0] = true;
+                } else {
+                    board = new Leaderboard(capacity);
+                }
+                return;
+            }
+            var delta = parse(line, Delta.class);
+            if (delta == null) {
+                return;
+            }
+            if (delta.result() != null) {
+                board.offer(delta.result());
+            }
+            sequence = delta.sequence();
+            logOffset = delta.offset();
+            lines++;
+        });
+        if (invalid[0] || board == null) {
+            board = null;
+            return false;
+        }
+        if (full) {
+            rewrittenLines = lines;
+        }
+        return true;
+    }
+
+    /**
+     * Appends the results that entered the board and the new position in
+     * the log, and rewrites the journal if it has grown too much.
+     *
+     * @param entered the results that entered the board, in the order they were offered
+     * @param sequence the sequence number of the segment of the log the position is in
+     * @param offset the number of bytes of the segment offered to the board
+     * @throws IOException if an I/O error occurs
+     */
+    void append(List<GameResult> entered, long sequence, long offset) throws IOException {
+        var out = new StringWriter();
+        if (entered.isEmpty()) {
+            JacksonHelper.writeLine(out, new Delta(null, sequence, offset));
+        }
+        for (var result : entered) {
+            JacksonHelper.writeLine(out, new Delta(result, sequence, offset));
+        }
+        var bytes = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Drop the end of a line cut short by a crash, which was not read.
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            channel.position(size);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        size += bytes.limit();
+        lines += Math.max(1, entered.size());
+        this.sequence = sequence;
+        logOffset = offset;
+        if (lines > 2 * rewrittenLines + 64) {
+            rewrite(board, sequence, offset);
+        }
+    }
+
+    /**
+     * Replaces the journal with the entries of a board, atomically.
+     *
+     * @param board the board
+     * @param sequence the sequence number of the segment of the log up to which the results have been offered
+     * @param offset the number of bytes of the segment offered to the board
+     * @throws IOException if an I/O error occurs
+     */
+    void rewrite(Leaderboard board, long sequence, long offset) throws IOException {
+        var entries = board.entries();
+        var temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = Files.newBufferedWriter(temp)) {
+                JacksonHelper.writeLine(out, new Header(board.getCapacity()));
+                for (var result : entries) {
+                    JacksonHelper.writeLine(out, new Delta(result, sequence, offset));
+                }
+                JacksonHelper.writeLine(out, new Delta(null, sequence, offset));
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        this.board = board;
+        identity = JsonLinesResultManager.identity(attributes);
+        size = attributes.size();
+        lines = entries.size() + 1;
+        rewrittenLines = lines;
+        this.sequence = sequence;
+        logOffset = offset;
+    }
+
+    private static <T> T parse(String line, Class<T> type) {
+        try {
+            return JacksonHelper.readLine(line, type);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package javafx;
 
-import gameresult.JsonResultManager;
+import gameresult.CachingResultManager;
 import gameresult.GameResult;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
@@ -74,7 +74,7 @@ public class TableController {
         tableView.setItems(gameResults);
         registerKeyEventHandler();
         ObservableList<GameResult> observableList = FXCollections.observableArrayList();
-        observableList.addAll(new JsonResultManager(Path.of("gameresult.json")).getBest(10));
+        observableList.addAll(CachingResultManager.of(Path.of("gameresult.json")).getBest(10));
         tableView.setItems(observableList);
     }
 
@@ -83,7 +83,7 @@ public class TableController {
      */
     private void loadGameResults() {
         try {
-            var resultManager = new JsonResultManager(Paths.get("gameresult.json"));
+            var resultManager = CachingResultManager.of(Paths.get("gameresult.json"));
             List<GameResult> results = resultManager.getAll();
             gameResults = FXCollections.observableArrayList(results);
         } catch (IOException e) {
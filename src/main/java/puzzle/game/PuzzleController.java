@@ -1,6 +1,6 @@
 package puzzle.game;
 
-import gameresult.JsonResultManager;
+import gameresult.CachingResultManager;
 import gameresult.GameResult;
 import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
@@ -19,6 +19,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -27,12 +28,22 @@ import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
 import org.tinylog.Logger;
 import puzzle.model.Direction;
+import puzzle.model.DistanceOracle;
+import puzzle.model.Maze;
 import puzzle.model.PuzzleState;
+import puzzle.model.SolutionCache;
+import puzzle.model.TrapMap;
+import puzzle.model.Wall;
 import util.Stopwatch;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Controller class for managing the puzzle game.
@@ -53,8 +64,27 @@ public class PuzzleController {
     @FXML
     private Label stopwatchLabel;
 
+    @FXML
+    private Label messageLabel;
+
+    private String defaultMessage;
+
+    private CompletableFuture<DistanceOracle> hints;
+
+    private CompletableFuture<TrapMap> traps;
+
+    private final AtomicReference<Maze> pendingEdit = new AtomicReference<>();
+
+    private final List<Node> hintPath = new ArrayList<>();
+
     private final Stopwatch stopwatch = new Stopwatch();
 
+    private Maze maze = Maze.original();
+
+    private boolean editing;
+
+    private boolean mazeEdited;
+
     private PuzzleState state;
 
     private Circle ball;
@@ -71,6 +101,7 @@ public class PuzzleController {
     @FXML
     public void initialize() {
         stopwatchLabel.textProperty().bind(stopwatch.timeProperty());
+        defaultMessage = messageLabel.getText();
         bindNumberOfMoves();
         registerKeyEventHandler();
         restartGame();
@@ -112,11 +143,185 @@ public class PuzzleController {
     }
 
     /**
-     * Creates a new puzzle state.
+     * Creates a new puzzle state and starts loading the hints of its maze
+     * on a background thread. In editor mode, the hints are computed on a
+     * copy of the walls, since they are about to change.
      */
     private void createState() {
-        state = new PuzzleState();
+        state = new PuzzleState(maze);
         state.solvedProperty().addListener(this::handleSolved);
+        hintPath.clear();
+        if (editing) {
+            analyzeEdits();
+            return;
+        }
+        var current = maze;
+        hints = CompletableFuture.supplyAsync(() -> loadHints(current));
+        traps = CompletableFuture.supplyAsync(current::getTrapMap);
+        showIdleMessage();
+    }
+
+    /**
+     * Starts computing the hints and the trap map of the edited maze on a
+     * background thread, from a copy of its walls. Edits made while they are
+     * being computed are coalesced: only the latest copy is analyzed next,
+     * and only the results of the latest edit are shown. If the analysis
+     * fails, the futures fail too and an error is shown until the next
+     * edit.
+     */
+    private void analyzeEdits() {
+        if (pendingEdit.get() == null) {
+            hints = new CompletableFuture<>();
+            traps = new CompletableFuture<>();
+        }
+        messageLabel.setText("EDIT: COMPUTING...");
+        var pendingHints = hints;
+        var pendingTraps = traps;
+        if (pendingEdit.getAndSet(maze.copy()) != null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            var edited = pendingEdit.get();
+            while (true) {
+                var oracle = edited.getDistanceOracle();
+                var trapMap = edited.getTrapMap();
+                if (pendingEdit.compareAndSet(edited, null)) {
+                    Platform.runLater(() -> {
+                        if (pendingEdit.get() != null) {
+                            return;
+                        }
+                        pendingHints.complete(oracle);
+                        pendingTraps.complete(trapMap);
+                        if (editing && hints == pendingHints) {
+                            showIdleMessage();
+                        }
+                    });
+                    return;
+                }
+                edited = pendingEdit.get();
+            }
+        }).exceptionally(e -> {
+            Logger.error("Failed to analyze the edited maze: {}", e.getMessage());
+            pendingEdit.set(null);
+            Platform.runLater(() -> {
+                pendingHints.completeExceptionally(e);
+                pendingTraps.completeExceptionally(e);
+                if (editing && hints == pendingHints) {
+                    showIdleMessage();
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Reads the distance oracle of a maze from the solution cache, or
+     * computes it and stores it in the cache. Mazes too large for the cache
+     * are solved without it.
+     */
+    private static DistanceOracle loadHints(Maze maze) {
+        try {
+            var cache = new SolutionCache(SolutionCache.DEFAULT_DIRECTORY, SolutionCache.DEFAULT_MAX_BYTES);
+            if (!cache.fits(maze)) {
+                return maze.getDistanceOracle();
+            }
+            return cache.getOrCompute(maze).oracle();
+        } catch (IOException e) {
+            Logger.warn("Failed to use the solution cache: {}", e.getMessage());
+            return maze.getDistanceOracle();
+        }
+    }
+
+    /**
+     * {@return the result of a future, or {@code null} if it is still being
+     * computed or failed}
+     */
+    private static <T> T resultNow(CompletableFuture<T> future) {
+        return future.state() == Future.State.SUCCESS ? future.resultNow() : null;
+    }
+
+    /**
+     * Shows the default message, or the optimal number of moves of the maze
+     * in editor mode.
+     */
+    private void showIdleMessage() {
+        if (!editing) {
+            messageLabel.setText(defaultMessage);
+            return;
+        }
+        if (hints.state() == Future.State.FAILED) {
+            messageLabel.setText("EDIT: ANALYSIS FAILED");
+            return;
+        }
+        var oracle = resultNow(hints);
+        if (oracle == null) {
+            messageLabel.setText("EDIT: COMPUTING...");
+            return;
+        }
+        int distance = oracle.distance(maze.getStart());
+        messageLabel.setText(distance == DistanceOracle.UNREACHABLE
+                ? "EDIT: UNSOLVABLE"
+                : "EDIT: " + distance + " MOVES");
+    }
+
+    /**
+     * Switches the editor mode on or off. The editor works on a copy of the
+     * maze, so that no wall changes while a background thread is computing
+     * hints. When the editor is switched off, the edited maze is played from
+     * its start, and its results are not saved once a wall was changed.
+     */
+    private void toggleEditor() {
+        editing = !editing;
+        if (editing) {
+            maze = maze.copy();
+        }
+        restartGame();
+    }
+
+    /**
+     * Places or removes the wall of the cell closest to the point clicked in
+     * editor mode, then starts updating the optimal number of moves in the
+     * background, so that clicking stays responsive on large boards.
+     *
+     * @param event the mouse event
+     * @param row the row of the cell clicked
+     * @param col the column of the cell clicked
+     */
+    private void handleEditorClick(MouseEvent event, int row, int col) {
+        if (!editing) {
+            return;
+        }
+        var bounds = ((Node) event.getSource()).getLayoutBounds();
+        double x = event.getX();
+        double y = event.getY();
+        var side = Direction.UP;
+        double distance = y;
+        if (bounds.getWidth() - x < distance) {
+            side = Direction.RIGHT;
+            distance = bounds.getWidth() - x;
+        }
+        if (bounds.getHeight() - y < distance) {
+            side = Direction.DOWN;
+            distance = bounds.getHeight() - y;
+        }
+        if (x < distance) {
+            side = Direction.LEFT;
+        }
+        var board = maze.getBoard();
+        if (!board.isOnBoard(row + side.getRowChange(), col + side.getColChange())) {
+            return;
+        }
+        int cell = board.cell(row, col);
+        if (board.hasWall(cell, side)) {
+            Logger.info("Removing wall {} of ({}, {})", side, row, col);
+            board.removeWall(row, col, side);
+        } else {
+            Logger.info("Adding wall {} of ({}, {})", side, row, col);
+            board.addWall(row, col, side);
+        }
+        mazeEdited = true;
+        clearAndPopulateGrid();
+        analyzeEdits();
     }
 
     /**
@@ -137,6 +342,7 @@ public class PuzzleController {
         var goal = state.getGoalPosition();
         GridPane.setRowIndex(goalLabel, goal.row());
         GridPane.setColumnIndex(goalLabel, goal.col());
+        goalLabel.setMouseTransparent(true);
         grid.getChildren().add(goalLabel);
     }
 
@@ -147,6 +353,7 @@ public class PuzzleController {
      */
     private Circle createBall() {
         ball = new Circle(50, Color.BLUE);
+        ball.setMouseTransparent(true);
         return ball;
     }
 
@@ -166,9 +373,7 @@ public class PuzzleController {
      * Creates walls in the grid based on the puzzle state.
      */
     private void createWalls() {
-        for (var wallPosition : state.getWalls()) {
-            createWall(wallPosition.getRow(), wallPosition.getCol(), wallPosition.getWall());
-        }
+        state.getWallIndex().forEach(this::createWall);
     }
 
     /**
@@ -178,7 +383,7 @@ public class PuzzleController {
      * @param col  the column index
      * @param wall the wall type
      */
-    private void createWall(int row, int col, PuzzleState.Wall wall) {
+    private void createWall(int row, int col, Wall wall) {
         Rectangle wallShape = new Rectangle();
         switch (wall) {
             case HORIZONTAL:
@@ -197,6 +402,7 @@ public class PuzzleController {
                 break;
         }
         wallShape.setFill(Color.BLACK);
+        wallShape.setMouseTransparent(true);
         grid.getChildren().add(wallShape);
     }
 
@@ -207,7 +413,7 @@ public class PuzzleController {
         grid.getChildren().clear();
         for (var row = 0; row < grid.getRowCount(); row++) {
             for (var col = 0; col < grid.getColumnCount(); col++) {
-                var gridLines = createPane();
+                var gridLines = createPane(row, col);
                 grid.add(gridLines, col, row);
             }
         }
@@ -216,10 +422,13 @@ public class PuzzleController {
     /**
      * Creates a stack pane for grid lines.
      *
+     * @param row the row index
+     * @param col the column index
      * @return the created stack pane
      */
-    private StackPane createPane() {
+    private StackPane createPane(int row, int col) {
         var pane = new StackPane();
+        pane.setOnMouseClicked(event -> handleEditorClick(event, row, col));
         pane.getStyleClass().add("pane");
         Rectangle border = createRectangle();
         pane.getChildren().add(border);
@@ -262,7 +471,9 @@ public class PuzzleController {
         alert.setHeaderText("Game Over");
         alert.setContentText("Congratulations, you have solved the maze!");
         alert.showAndWait();
-        addJson();
+        if (!editing && !mazeEdited) {
+            addJson();
+        }
         restartGame();
     }
 
@@ -271,7 +482,7 @@ public class PuzzleController {
      */
     private void addJson() {
         try {
-            var resultManager = new JsonResultManager(Paths.get("gameresult.json"));
+            var resultManager = CachingResultManager.of(Paths.get("gameresult.json"));
             var result = new GameResult(playerName, numberOfMoves.get(), duration);
             resultManager.add(result);
         } catch (IOException e) {
@@ -279,6 +490,81 @@ public class PuzzleController {
         }
     }
 
+    /**
+     * Shows the best next move. If the hints are still being computed, the
+     * move is shown as soon as they are ready.
+     */
+    private void showHint() {
+        if (hints.state() == Future.State.FAILED) {
+            messageLabel.setText("NO HINT AVAILABLE");
+            return;
+        }
+        var oracle = resultNow(hints);
+        if (oracle == null) {
+            messageLabel.setText("COMPUTING HINT...");
+            var pending = hints;
+            pending.whenCompleteAsync((result, failure) -> {
+                if (pending == hints) {
+                    showHint();
+                }
+            }, Platform::runLater);
+            return;
+        }
+        var move = oracle.nextMove(state.getBall());
+        if (move != null) {
+            messageLabel.setText("HINT: MOVE " + move);
+        } else if (state.isSolved()) {
+            showIdleMessage();
+        } else {
+            messageLabel.setText("NO SOLUTION FROM HERE");
+        }
+    }
+
+    /**
+     * Shows the remaining optimal path on the grid, or hides it if it is
+     * already shown. Nothing is shown while the hints are being computed.
+     */
+    private void toggleHintPath() {
+        if (!hintPath.isEmpty()) {
+            clearHintPath();
+            return;
+        }
+        if (hints.state() == Future.State.FAILED) {
+            messageLabel.setText("NO HINT AVAILABLE");
+            return;
+        }
+        var oracle = resultNow(hints);
+        if (oracle == null) {
+            messageLabel.setText("COMPUTING HINT...");
+            return;
+        }
+        var board = state.getMaze().getBoard();
+        var table = board.getSlideTable();
+        int cell = state.getBall();
+        for (var move : oracle.path(board, cell)) {
+            int destination = table.destination(cell, move);
+            int step = board.step(move);
+            while (cell != destination) {
+                cell += step;
+                var marker = new Circle(10, Color.ORANGE);
+                marker.setMouseTransparent(true);
+                GridPane.setRowIndex(marker, board.row(cell));
+                GridPane.setColumnIndex(marker, board.col(cell));
+                hintPath.add(marker);
+            }
+        }
+        grid.getChildren().addAll(hintPath);
+    }
+
+    /**
+     * Removes the optimal path from the grid and restores the default message.
+     */
+    private void clearHintPath() {
+        grid.getChildren().removeAll(hintPath);
+        hintPath.clear();
+        showIdleMessage();
+    }
+
     /**
      * Registers the key event handler for the grid.
      */
@@ -313,6 +599,15 @@ public class PuzzleController {
         } else if (keyEvent.getCode() == KeyCode.LEFT) {
             Logger.debug("LEFT pressed");
             makeMoveIfLegal(Direction.LEFT);
+        } else if (keyEvent.getCode() == KeyCode.E) {
+            Logger.debug("E pressed");
+            toggleEditor();
+        } else if (keyEvent.getCode() == KeyCode.H && keyEvent.isShiftDown()) {
+            Logger.debug("SHIFT + H pressed");
+            toggleHintPath();
+        } else if (keyEvent.getCode() == KeyCode.H) {
+            Logger.debug("H pressed");
+            showHint();
         } else if (keyEvent.getCode() == KeyCode.BACK_SPACE) {
             Logger.debug("BACKSPACE pressed");
             try {
@@ -342,13 +637,27 @@ public class PuzzleController {
             Logger.info("Moving {}", direction);
             state.makeMove(direction);
             Logger.trace("New state after move: {}", state);
+            clearHintPath();
             updateBallPosition();
             numberOfMoves.set(numberOfMoves.get() + 1);
+            flagIfStuck();
         } else {
             Logger.warn("Illegal move: {}", direction);
         }
     }
 
+    /**
+     * Warns the player when the ball has rolled onto a cell the goal cannot
+     * be reached from. Nothing is shown while the trap map is being computed.
+     */
+    private void flagIfStuck() {
+        var trapMap = resultNow(traps);
+        if (trapMap != null && trapMap.isTrap(state.getBall())) {
+            Logger.info("Ball stuck at {}", state.getBallPosition());
+            messageLabel.setText("STUCK: PRESS CTRL + R TO RESTART");
+        }
+    }
+
     /**
      * Binds the number of moves to the text field.
      */
@@ -0,0 +1,164 @@
+package puzzle.generator;
+
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.DistanceOracle;
+import puzzle.model.Maze;
+import puzzle.model.MazeIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates random mazes that can be solved in at least a given number of moves.
+ * <p>
+ * The walls are placed randomly with the given density, then the start cell
+ * is chosen using a {@link DistanceOracle} among the cells whose distance
+ * from the goal is at least the
+ * required number of moves. If there is no such cell, a new layout is tried.
+ * Generation is deterministic: the same seed always produces the same maze,
+ * independently of how many mazes are generated in parallel.
+ */
+public final class MazeGenerator {
+
+    private final int rows;
+    private final int cols;
+    private final double wallDensity;
+    private final int minMoves;
+    private final int maxAttempts;
+
+    /**
+     * Creates a generator.
+     *
+     * @param rows the number of rows of the mazes
+     * @param cols the number of columns of the mazes
+     * @param wallDensity the probability of a wall on each inner side of a cell
+     * @param minMoves the minimum number of moves of the optimal solution
+     * @param maxAttempts the number of layouts to try before giving up
+     * @throws IllegalArgumentException if any of the parameters is invalid
+     */
+    public MazeGenerator(int rows, int cols, double wallDensity, int minMoves, int maxAttempts) {
+        if (rows <= 0 || cols <= 0 || wallDensity < 0 || wallDensity > 1
+                || minMoves < 0 || minMoves > Short.MAX_VALUE || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Invalid generator parameters");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.wallDensity = wallDensity;
+        this.minMoves = minMoves;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Generates a maze.
+     *
+     * @param seed the seed of the random number generator
+     * @return the maze generated
+     * @throws IllegalStateException if no suitable maze was found within the allowed number of attempts
+     */
+    public Maze generate(long seed) {
+        var random = new SplittableRandom(seed);
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            var board = new Board(rows, cols);
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (row > 0 && random.nextDouble() < wallDensity) {
+                        board.addWall(row, col, Direction.UP);
+                    }
+                    if (col < cols - 1 && random.nextDouble() < wallDensity) {
+                        board.addWall(row, col, Direction.RIGHT);
+                    }
+                }
+            }
+            int goal = random.nextInt(board.getCellCount());
+            int start = chooseStart(new DistanceOracle(board, goal), board.getCellCount(), random);
+            if (start >= 0) {
+                return new Maze(board, start, goal);
+            }
+        }
+        throw new IllegalStateException("No maze found that needs at least " + minMoves + " moves after "
+                + maxAttempts + " attempts");
+    }
+
+    private int chooseStart(DistanceOracle oracle, int cells, SplittableRandom random) {
+        int candidates = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (oracle.distance(cell) >= minMoves) {
+                candidates++;
+            }
+        }
+        if (candidates == 0) {
+            return -1;
+        }
+        int chosen = random.nextInt(candidates);
+        for (int cell = 0; cell < cells; cell++) {
+            if (oracle.distance(cell) >= minMoves && chosen-- == 0) {
+                return cell;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    /**
+     * Generates several mazes in parallel. The {@code i}-th maze is the one
+     * {@link #generate(long)} returns for the {@code i}-th derived seed, so the
+     * result does not depend on the number of threads.
+     *
+     * @param seed the seed the seeds of the mazes are derived from
+     * @param count the number of mazes
+     * @return the list of the mazes generated
+     */
+    public List<Maze> generate(long seed, int count) {
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> generate(deriveSeed(seed, i)))
+                .toList();
+    }
+
+    /**
+     * Generates several mazes in parallel and writes them to the directory
+     * specified in binary format, named {@code level-00000.maze},
+     * {@code level-00001.maze} and so on. Only the mazes being generated are
+     * kept in memory.
+     *
+     * @param seed the seed the seeds of the mazes are derived from
+     * @param count the number of mazes
+     * @param directory the directory to write the mazes to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeAll(long seed, int count, Path directory) throws IOException {
+        try {
+            IntStream.range(0, count)
+                    .parallel()
+                    .forEach(i -> {
+                        var file = directory.resolve(String.format("level-%05d.maze", i));
+                        try {
+                            MazeIO.writeBinary(generate(deriveSeed(seed, i)), file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Derives an independent seed from a seed and an index using the
+     * SplitMix64 finalizer.
+     *
+     * @param seed the base seed
+     * @param index the index
+     * @return the derived seed
+     */
+    static long deriveSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
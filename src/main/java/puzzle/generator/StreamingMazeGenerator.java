@@ -0,0 +1,221 @@
+package puzzle.generator;
+
+import puzzle.model.MazeIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates large random mazes directly into binary maze files, without
+ * building them in memory.
+ * <p>
+ * The walls of each row are drawn from a random number generator seeded by
+ * the maze seed and the row index, so the file can be written row by row,
+ * one wall layer after the other, using memory proportional to the number of
+ * columns only. Solvability is guaranteed by construction: a staircase path
+ * of alternating {@code RIGHT} and {@code DOWN} moves leads from the top left
+ * corner to the goal, its corridors are kept free of walls and each of its
+ * stops is backed by a wall. The path has exactly the requested number of
+ * moves, which is therefore an upper bound of the optimal solution, since
+ * the random walls may open shortcuts. Load the maze and solve it to learn
+ * the exact optimum.
+ */
+public final class StreamingMazeGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final int rows;
+    private final int cols;
+    private final double wallDensity;
+    private final int moves;
+
+    /**
+     * Creates a generator.
+     *
+     * @param rows the number of rows of the mazes
+     * @param cols the number of columns of the mazes
+     * @param wallDensity the probability of a wall on each inner side of a cell
+     * @param moves the number of moves of the guaranteed solution
+     * @throws IllegalArgumentException if any of the parameters is invalid or
+     *         the board is too small for the number of moves
+     */
+    public StreamingMazeGenerator(int rows, int cols, double wallDensity, int moves) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE
+                || wallDensity < 0 || wallDensity > 1 || moves < 0) {
+            throw new IllegalArgumentException("Invalid generator parameters");
+        }
+        if ((moves + 1) / 2 > cols - 1 || moves / 2 > rows - 1) {
+            throw new IllegalArgumentException("The board is too small for " + moves + " moves");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.wallDensity = wallDensity;
+        this.moves = moves;
+    }
+
+    /**
+     * Generates a maze and writes it to the file specified in binary format.
+     *
+     * @param seed the seed of the random number generator
+     * @param file the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(long seed, Path file) throws IOException {
+        var random = new SplittableRandom(seed);
+        // the columns where the RIGHT moves stop and the rows where the DOWN moves stop
+        int[] colStops = sortedDistinct(random, (moves + 1) / 2, cols);
+        int[] rowStops = sortedDistinct(random, moves / 2, rows);
+        int goalRow = rowStops.length == 0 ? 0 : rowStops[rowStops.length - 1];
+        int goalCol = colStops.length == 0 ? 0 : colStops[colStops.length - 1];
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            MazeIO.writeBinaryHeader(channel, rows, cols, 0, goalRow * cols + goalCol);
+            var writer = new BitWriter(channel);
+            var walls = new boolean[cols];
+            for (int row = 0; row < rows; row++) {
+                randomWalls(seed, 0, row, walls);
+                if (row == 0) {
+                    Arrays.fill(walls, false);
+                }
+                applyDownPath(row, colStops, rowStops, walls);
+                writer.write(walls);
+            }
+            writer.endLayer();
+            for (int row = 0; row < rows; row++) {
+                randomWalls(seed, 1, row, walls);
+                walls[cols - 1] = false;
+                applyRightPath(row, colStops, rowStops, walls);
+                writer.write(walls);
+            }
+            writer.endLayer();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Generates several mazes in parallel and writes them to the directory
+     * specified, named {@code large-00000.maze}, {@code large-00001.maze} and
+     * so on.
+     *
+     * @param seed the seed the seeds of the mazes are derived from
+     * @param count the number of mazes
+     * @param directory the directory to write the mazes to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeAll(long seed, int count, Path directory) throws IOException {
+        try {
+            IntStream.range(0, count)
+                    .parallel()
+                    .forEach(i -> {
+                        try {
+                            write(MazeGenerator.deriveSeed(seed, i), directory.resolve(String.format("large-%05d.maze", i)));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static int[] sortedDistinct(SplittableRandom random, int count, int bound) {
+        return random.ints(1, bound).distinct().limit(count).sorted().toArray();
+    }
+
+    private void randomWalls(long seed, int layer, int row, boolean[] walls) {
+        var random = new SplittableRandom(MazeGenerator.deriveSeed(seed, 2L * row + layer));
+        for (int col = 0; col < cols; col++) {
+            walls[col] = random.nextDouble() < wallDensity;
+        }
+    }
+
+    /**
+     * Adjusts the walls above the cells of a row so that the {@code DOWN}
+     * moves of the path roll freely and stop where they should.
+     */
+    private static void applyDownPath(int row, int[] colStops, int[] rowStops, boolean[] walls) {
+        for (int j = 0; j < rowStops.length; j++) {
+            int from = j == 0 ? 0 : rowStops[j - 1];
+            int to = rowStops[j];
+            if (row > from && row <= to) {
+                walls[colStops[j]] = false;
+            } else if (row == to + 1) {
+                walls[colStops[j]] = true;
+            }
+        }
+    }
+
+    /**
+     * Adjusts the walls on the right of the cells of a row so that the
+     * {@code RIGHT} move of the path in this row rolls freely and stops where
+     * it should.
+     */
+    private static void applyRightPath(int row, int[] colStops, int[] rowStops, boolean[] walls) {
+        for (int j = 0; j < colStops.length; j++) {
+            int pathRow = j == 0 ? 0 : rowStops[j - 1];
+            if (pathRow == row) {
+                int from = j == 0 ? 0 : colStops[j - 1];
+                Arrays.fill(walls, from, colStops[j], false);
+                if (colStops[j] < walls.length - 1) {
+                    walls[colStops[j]] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes bits to a channel packed into little-endian {@code long} words.
+     */
+    private static final class BitWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long word;
+        private int bits;
+
+        BitWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(boolean[] values) throws IOException {
+            for (boolean value : values) {
+                if (value) {
+                    word |= 1L << bits;
+                }
+                if (++bits == Long.SIZE) {
+                    putWord();
+                }
+            }
+        }
+
+        void endLayer() throws IOException {
+            if (bits > 0) {
+                putWord();
+            }
+        }
+
+        private void putWord() throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putLong(word);
+            word = 0;
+            bits = 0;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
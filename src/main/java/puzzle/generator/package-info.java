@@ -0,0 +1,4 @@
+/**
+ * Procedural generation of solvable mazes for the puzzle game.
+ */
+package puzzle.generator;
@@ -0,0 +1,304 @@
+package puzzle.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the walls of a rectangular board packed into bitsets.
+ * <p>
+ * Every cell of the board is identified by a single {@code int} index
+ * ({@code row * cols + col}). Each of the four wall layers is a multi-word
+ * bitset holding one bit per cell, so that checking a wall is a shift and a
+ * mask instead of a 2D array lookup. Walls are always kept consistent on
+ * both sides, e.g. a wall on the right side of a cell is also a wall on the
+ * left side of its right neighbour.
+ */
+public final class Board {
+
+    private final int rows;
+    private final int cols;
+    private final long[][] walls;
+    private long version;
+    private SlideTable slideTable;
+    private WallIndex wallIndex;
+
+    /**
+     * Creates an empty board of the given size, without any walls.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @throws IllegalArgumentException if the size is not positive or too large
+     */
+    public Board(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        int words = (int) (((long) rows * cols + 63) >>> 6);
+        walls = new long[Direction.values().length][words];
+    }
+
+    /**
+     * {@return the number of rows of the board}
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * {@return the number of columns of the board}
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * {@return the number of cells of the board}
+     */
+    public int getCellCount() {
+        return rows * cols;
+    }
+
+    /**
+     * {@return the version of the walls, which is incremented by every change}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the slide table of the board. The table is built on the first
+     * call, then it is repaired in place by {@link #addWall} and
+     * {@link #removeWall}. It is rebuilt only when all walls are replaced.
+     *
+     * @return the slide table matching the current walls
+     * @throws IllegalStateException if the board has more than {@link SlideTable#MAX_CELLS} cells
+     */
+    public SlideTable getSlideTable() {
+        var table = slideTable;
+        if (table == null || table.getVersion() != version) {
+            table = new SlideTable(this);
+            slideTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the wall index of the board. The index is built on the first
+     * call and is rebuilt only when the walls have changed since.
+     *
+     * @return the wall index matching the current walls
+     */
+    public WallIndex getWallIndex() {
+        var index = wallIndex;
+        if (index == null || index.getVersion() != version) {
+            index = new WallIndex(this);
+            wallIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the cell at the specified coordinates.
+     *
+     * @param row the row coordinate
+     * @param col the column coordinate
+     * @return the index of the cell
+     */
+    public int cell(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * {@return the row coordinate of the cell specified}
+     *
+     * @param cell the index of the cell
+     */
+    public int row(int cell) {
+        return cell / cols;
+    }
+
+    /**
+     * {@return the column coordinate of the cell specified}
+     *
+     * @param cell the index of the cell
+     */
+    public int col(int cell) {
+        return cell % cols;
+    }
+
+    /**
+     * {@return whether the coordinates specified are on the board}
+     *
+     * @param row the row coordinate
+     * @param col the column coordinate
+     */
+    public boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * Returns the change of the cell index when moving in the specified direction.
+     *
+     * @param direction the direction of the move
+     * @return the change of the cell index
+     */
+    public int step(Direction direction) {
+        return direction.getRowChange() * cols + direction.getColChange();
+    }
+
+    /**
+     * {@return whether there is a wall on the specified side of the cell}
+     *
+     * @param cell the index of the cell
+     * @param side the side of the cell
+     */
+    public boolean hasWall(int cell, Direction side) {
+        return (walls[side.ordinal()][cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Returns whether the ball cannot leave the cell in the specified direction,
+     * either because of a wall or because of the edge of the board.
+     *
+     * @param cell the index of the cell
+     * @param direction the direction of the move
+     * @return {@code true} if the ball cannot leave the cell, {@code false} otherwise
+     */
+    public boolean isBlocked(int cell, Direction direction) {
+        if (hasWall(cell, direction)) {
+            return true;
+        }
+        return switch (direction) {
+            case UP -> cell < cols;
+            case RIGHT -> cell % cols == cols - 1;
+            case DOWN -> cell >= (rows - 1) * cols;
+            case LEFT -> cell % cols == 0;
+        };
+    }
+
+    /**
+     * Returns the cell where the ball stops when it is rolled from the cell
+     * specified. If the ball cannot move, the cell itself is returned.
+     *
+     * @param cell the index of the cell the ball starts from
+     * @param direction the direction of the move
+     * @return the index of the cell where the ball stops
+     */
+    public int roll(int cell, Direction direction) {
+        int step = step(direction);
+        while (!isBlocked(cell, direction)) {
+            cell += step;
+        }
+        return cell;
+    }
+
+    /**
+     * Places a wall on the specified side of the cell. The wall is also placed
+     * on the opposite side of the neighbouring cell, if there is one.
+     *
+     * @param row the row coordinate of the cell
+     * @param col the column coordinate of the cell
+     * @param side the side of the cell
+     */
+    public void addWall(int row, int col, Direction side) {
+        setWall(row, col, side, true);
+    }
+
+    /**
+     * Removes the wall from the specified side of the cell. The wall is also
+     * removed from the opposite side of the neighbouring cell, if there is one.
+     *
+     * @param row the row coordinate of the cell
+     * @param col the column coordinate of the cell
+     * @param side the side of the cell
+     */
+    public void removeWall(int row, int col, Direction side) {
+        setWall(row, col, side, false);
+    }
+
+    private void setWall(int row, int col, Direction side, boolean present) {
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException("Invalid cell: " + row + ", " + col);
+        }
+        version++;
+        setBit(walls[side.ordinal()], cell(row, col), present);
+        int neighbourRow = row + side.getRowChange();
+        int neighbourCol = col + side.getColChange();
+        if (isOnBoard(neighbourRow, neighbourCol)) {
+            setBit(walls[side.opposite().ordinal()], cell(neighbourRow, neighbourCol), present);
+        }
+        var table = slideTable;
+        if (table != null && table.getVersion() == version - 1) {
+            table.repair(this, row, col, side);
+        }
+    }
+
+    /**
+     * Creates a copy of the board with the same walls. Changing the walls of
+     * the copy does not affect this board.
+     *
+     * @return the copy
+     */
+    public Board copy() {
+        var copy = new Board(rows, cols);
+        for (int side = 0; side < walls.length; side++) {
+            System.arraycopy(walls[side], 0, copy.walls[side], 0, walls[side].length);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the bitset of the walls on the specified side of the cells.
+     * The array returned is the internal one, it must not be modified.
+     *
+     * @param side the side of the cells
+     * @return the bitset of the walls
+     */
+    long[] wallBits(Direction side) {
+        return walls[side.ordinal()];
+    }
+
+    /**
+     * Replaces all walls of the board. Only the walls above and on the right
+     * of the cells need to be given, the opposite sides are derived from them.
+     * Walls along the edge of the board are dropped, since the edge blocks the
+     * ball anyway.
+     *
+     * @param up the bitset of the walls above the cells
+     * @param right the bitset of the walls on the right of the cells
+     */
+    void setWallBits(long[] up, long[] right) {
+        version++;
+        for (long[] layer : walls) {
+            Arrays.fill(layer, 0L);
+        }
+        int cells = getCellCount();
+        for (int word = 0; word < up.length; word++) {
+            for (long bits = up[word]; bits != 0; bits &= bits - 1) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (cell >= cols && cell < cells) {
+                    setBit(walls[Direction.UP.ordinal()], cell, true);
+                    setBit(walls[Direction.DOWN.ordinal()], cell - cols, true);
+                }
+            }
+        }
+        for (int word = 0; word < right.length; word++) {
+            for (long bits = right[word]; bits != 0; bits &= bits - 1) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (cell % cols != cols - 1 && cell < cells) {
+                    setBit(walls[Direction.RIGHT.ordinal()], cell, true);
+                    setBit(walls[Direction.LEFT.ordinal()], cell + 1, true);
+                }
+            }
+        }
+    }
+
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
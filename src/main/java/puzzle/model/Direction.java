@@ -9,6 +9,16 @@ public enum Direction {
     DOWN(1, 0),
     LEFT(0, -1);
 
+    private static final Direction[] VALUES = values();
+
+    private static final Direction[] BY_CHANGE = new Direction[9];
+
+    static {
+        for (var direction : VALUES) {
+            BY_CHANGE[changeIndex(direction.rowChange, direction.colChange)] = direction;
+        }
+    }
+
     private final int rowChange;
     private final int colChange;
 
@@ -41,6 +51,18 @@ public enum Direction {
         return colChange;
     }
 
+    /**
+     * {@return the direction opposite to this direction}
+     */
+    public Direction opposite() {
+        return switch (this) {
+            case UP -> DOWN;
+            case RIGHT -> LEFT;
+            case DOWN -> UP;
+            case LEFT -> RIGHT;
+        };
+    }
+
     /**
      * Returns the direction that corresponds to the specified row and column changes.
      *
@@ -50,11 +72,28 @@ public enum Direction {
      * @throws IllegalArgumentException if no direction corresponds to the changes
      */
     public static Direction of(int rowChange, int colChange) {
-        for (var direction : values()) {
-            if (direction.getRowChange() == rowChange && direction.getColChange() == colChange) {
+        if (rowChange >= -1 && rowChange <= 1 && colChange >= -1 && colChange <= 1) {
+            var direction = BY_CHANGE[changeIndex(rowChange, colChange)];
+            if (direction != null) {
                 return direction;
             }
         }
         throw new IllegalArgumentException("No direction with row change " + rowChange + " and column change " + colChange);
     }
+
+    private static int changeIndex(int rowChange, int colChange) {
+        return (rowChange + 1) * 3 + colChange + 1;
+    }
+
+    /**
+     * Returns the direction with the specified ordinal. Unlike indexing
+     * {@link #values()}, this method does not copy the array of the constants.
+     *
+     * @param ordinal the ordinal of the direction
+     * @return the direction with the specified ordinal
+     * @throws ArrayIndexOutOfBoundsException if there is no direction with the ordinal
+     */
+    public static Direction fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
 }
@@ -0,0 +1,168 @@
+package puzzle.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The minimum number of moves from every cell of a maze to the goal, and the
+ * first move of an optimal solution from every cell.
+ * <p>
+ * The oracle is computed by a single breadth-first search from the goal
+ * following the moves in reverse: the cells that roll into a cell in a
+ * direction are the cells of the open corridor behind it, provided the cell
+ * is blocked in that direction. The results are stored in a {@code short[]}
+ * and a {@code byte[]} array, so every query takes constant time. The oracle
+ * is immutable and can be shared between threads. Use
+ * {@link Maze#getDistanceOracle()} to get the oracle of a maze, which is
+ * computed on the first call only.
+ */
+public final class DistanceOracle {
+
+    /**
+     * The distance reported for the cells the goal cannot be reached from.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int goal;
+    private final long version;
+    private final short[] distances;
+    private final byte[] firstMoves;
+
+    /**
+     * Computes the oracle of the goal cell on the current walls of the board.
+     *
+     * @param board the board
+     * @param goal the index of the goal cell
+     */
+    public DistanceOracle(Board board, int goal) {
+        this.goal = goal;
+        version = board.getVersion();
+        var table = board.getSlideTable();
+        int cells = board.getCellCount();
+        distances = new short[cells];
+        firstMoves = new byte[cells];
+        Arrays.fill(distances, (short) UNREACHABLE);
+        Arrays.fill(firstMoves, (byte) -1);
+        int[] queue = new int[cells];
+        int head = 0;
+        int tail = 0;
+        distances[goal] = 0;
+        queue[tail++] = goal;
+        while (head < tail) {
+            int cell = queue[head++];
+            short distance = (short) Math.min(distances[cell] + 1, Short.MAX_VALUE);
+            for (Direction direction : DIRECTIONS) {
+                if (table.destination(cell, direction) != cell) {
+                    continue;
+                }
+                var back = direction.opposite();
+                int step = board.step(back);
+                for (int previous = cell; !board.isBlocked(previous, back); ) {
+                    previous += step;
+                    if (distances[previous] == UNREACHABLE) {
+                        distances[previous] = distance;
+                        firstMoves[previous] = (byte) direction.ordinal();
+                        queue[tail++] = previous;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates an oracle from precomputed tables.
+     *
+     * @param goal the index of the goal cell
+     * @param version the version of the board the tables belong to
+     * @param distances the distance of every cell
+     * @param firstMoves the ordinal of the first move of every cell, or {@code -1}
+     */
+    DistanceOracle(int goal, long version, short[] distances, byte[] firstMoves) {
+        this.goal = goal;
+        this.version = version;
+        this.distances = distances;
+        this.firstMoves = firstMoves;
+    }
+
+    /**
+     * {@return the distance table, which must not be modified}
+     */
+    short[] distances() {
+        return distances;
+    }
+
+    /**
+     * {@return the table of the first moves, which must not be modified}
+     */
+    byte[] firstMoves() {
+        return firstMoves;
+    }
+
+    /**
+     * {@return the index of the goal cell}
+     */
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * {@return the version of the board the oracle was computed from}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the minimum number of moves from the cell to the goal.
+     * Distances above {@link Short#MAX_VALUE} are reported as
+     * {@link Short#MAX_VALUE}.
+     *
+     * @param cell the index of the cell
+     * @return the minimum number of moves, or {@link #UNREACHABLE}
+     */
+    public int distance(int cell) {
+        return distances[cell];
+    }
+
+    /**
+     * {@return whether the goal can be reached from the cell}
+     *
+     * @param cell the index of the cell
+     */
+    public boolean isSolvable(int cell) {
+        return distances[cell] != UNREACHABLE;
+    }
+
+    /**
+     * Returns the first move of an optimal solution from the cell.
+     *
+     * @param cell the index of the cell
+     * @return the first move, or {@code null} if the cell is the goal or the
+     *         goal cannot be reached from it
+     */
+    public Direction nextMove(int cell) {
+        int move = firstMoves[cell];
+        return move < 0 ? null : Direction.fromOrdinal(move);
+    }
+
+    /**
+     * Returns the moves of an optimal solution from the cell.
+     *
+     * @param board the board the oracle was computed from
+     * @param cell the index of the cell
+     * @return the list of the moves, which is empty if the cell is the goal
+     *         or the goal cannot be reached from it
+     */
+    public List<Direction> path(Board board, int cell) {
+        var table = board.getSlideTable();
+        var path = new ArrayList<Direction>();
+        for (var move = nextMove(cell); move != null; move = nextMove(cell)) {
+            path.add(move);
+            cell = table.destination(cell, move);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,160 @@
+package puzzle.model;
+
+import puzzle.State;
+
+import java.util.Set;
+
+/**
+ * Represents the state of the puzzle without any JavaFX dependency.
+ * <p>
+ * The state consists of a shared {@link Maze} and the cell index of the
+ * ball, so cloning it copies only a few fields. It is meant for
+ * solvers and simulations, the user interface uses the observable
+ * {@link PuzzleState} instead. The two can be converted into each other with
+ * {@link PuzzleState#toHeadless()} and {@link PuzzleState#PuzzleState(HeadlessPuzzleState)}.
+ */
+public final class HeadlessPuzzleState implements State<Direction> {
+
+    private final Maze maze;
+    private final Board board;
+    private int ball;
+
+    /**
+     * Creates a {@code HeadlessPuzzleState} object that corresponds to the
+     * original initial state of the puzzle.
+     */
+    public HeadlessPuzzleState() {
+        this(Maze.original());
+    }
+
+    /**
+     * Creates a {@code HeadlessPuzzleState} object with the ball on the start
+     * cell of the maze specified.
+     *
+     * @param maze the maze
+     */
+    public HeadlessPuzzleState(Maze maze) {
+        this(maze, maze.getStart());
+    }
+
+    /**
+     * Creates a {@code HeadlessPuzzleState} object with the ball on the cell
+     * specified.
+     *
+     * @param maze the maze
+     * @param ball the index of the cell of the ball
+     */
+    public HeadlessPuzzleState(Maze maze, int ball) {
+        if (ball < 0 || ball >= maze.getBoard().getCellCount()) {
+            throw new IllegalArgumentException("Invalid ball position.");
+        }
+        this.maze = maze;
+        this.board = maze.getBoard();
+        this.ball = ball;
+    }
+
+    /**
+     * {@return the maze of the puzzle}
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * {@return the board the ball rolls on}
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * {@return the index of the cell of the ball}
+     */
+    public int getBall() {
+        return ball;
+    }
+
+    /**
+     * {@return the index of the goal cell}
+     */
+    public int getGoal() {
+        return maze.getGoal();
+    }
+
+    /**
+     * {@return the current position of the ball}
+     */
+    public Position getBallPosition() {
+        return Position.of(board.row(ball), board.col(ball));
+    }
+
+    /**
+     * {@return whether the puzzle is solved}
+     */
+    @Override
+    public boolean isSolved() {
+        return ball == maze.getGoal();
+    }
+
+    /**
+     * {@return whether the move provided can be applied to the state}
+     *
+     * @param move represents the move to be made
+     */
+    @Override
+    public boolean isLegalMove(Direction move) {
+        return board.getSlideTable().destination(ball, move) != ball;
+    }
+
+    /**
+     * Applies the move provided to the state. This method should be called if
+     * and only if {@link #isLegalMove(Direction)} returns {@code true}.
+     *
+     * @param move represents the move to be made
+     */
+    @Override
+    public void makeMove(Direction move) {
+        ball = board.getSlideTable().destination(ball, move);
+    }
+
+    /**
+     * Gets all legal moves available in the current state. The set returned
+     * is immutable.
+     *
+     * @return a set containing all legal moves that can be applied to this state
+     */
+    @Override
+    public Set<Direction> getLegalMoves() {
+        return board.getSlideTable().legalMoveSet(ball);
+    }
+
+    @Override
+    public int hashCode() {
+        return ball;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) return false;
+        HeadlessPuzzleState state = (HeadlessPuzzleState) o;
+        return ball == state.ball && maze == state.maze;
+    }
+
+    /**
+     * Creates and returns a copy of the puzzle state sharing the same maze.
+     *
+     * @return a new {@code HeadlessPuzzleState} object representing an identical copy of the current state
+     */
+    @Override
+    public HeadlessPuzzleState clone() {
+        return new HeadlessPuzzleState(maze, ball);
+    }
+
+    @Override
+    public String toString() {
+        return getBallPosition().toString();
+    }
+}
@@ -0,0 +1,193 @@
+package puzzle.model;
+
+import java.util.Optional;
+
+/**
+ * Represents a maze, i.e. a board with its walls together with the start
+ * cell of the ball and the goal cell.
+ * <p>
+ * Mazes can be loaded from and saved to files using {@link MazeIO}.
+ */
+public final class Maze {
+
+    private static final Maze ORIGINAL = createOriginal();
+
+    private final Board board;
+    private final int start;
+    private final int goal;
+    private final Position startPosition;
+    private final Position goalPosition;
+    private volatile DistanceOracle distanceOracle;
+    private volatile TrapMap trapMap;
+
+    /**
+     * Creates a maze.
+     *
+     * @param board the board with the walls
+     * @param start the index of the start cell of the ball
+     * @param goal the index of the goal cell
+     * @throws IllegalArgumentException if the start or the goal is not on the board
+     */
+    public Maze(Board board, int start, int goal) {
+        if (start < 0 || start >= board.getCellCount() || goal < 0 || goal >= board.getCellCount()) {
+            throw new IllegalArgumentException("Invalid start or goal position.");
+        }
+        this.board = board;
+        this.start = start;
+        this.goal = goal;
+        startPosition = Position.of(board.row(start), board.col(start));
+        goalPosition = Position.of(board.row(goal), board.col(goal));
+    }
+
+    /**
+     * Returns the maze of the original puzzle. The maze returned is shared,
+     * so its walls must not be modified.
+     *
+     * @return the maze of the original puzzle
+     */
+    public static Maze original() {
+        return ORIGINAL;
+    }
+
+    /**
+     * Initializes the walls on the board of the original puzzle.
+     * The walls indicate the positions where movement is restricted.
+     *
+     * @return the original maze
+     */
+    private static Maze createOriginal() {
+        var board = new Board(7, 7);
+        // It shows where we can't move through, the opposite sides are set by addWall
+        board.addWall(1, 2, Direction.UP);
+        board.addWall(1, 6, Direction.UP);
+        board.addWall(3, 1, Direction.UP);
+        board.addWall(4, 3, Direction.UP);
+        board.addWall(4, 6, Direction.UP);
+        board.addWall(5, 0, Direction.UP);
+        board.addWall(5, 4, Direction.UP);
+        board.addWall(6, 2, Direction.UP);
+
+        board.addWall(0, 0, Direction.RIGHT);
+        board.addWall(0, 3, Direction.RIGHT);
+        board.addWall(2, 2, Direction.RIGHT);
+        board.addWall(2, 5, Direction.RIGHT);
+        board.addWall(3, 3, Direction.RIGHT);
+        board.addWall(3, 4, Direction.RIGHT);
+        board.addWall(5, 1, Direction.RIGHT);
+        board.addWall(5, 2, Direction.RIGHT);
+        board.addWall(6, 3, Direction.RIGHT);
+        board.addWall(6, 5, Direction.RIGHT);
+        return new Maze(board, board.cell(1, 4), board.cell(5, 2));
+    }
+
+    /**
+     * {@return the board with the walls}
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * {@return the index of the start cell of the ball}
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * {@return the index of the goal cell}
+     */
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * Creates a copy of the maze with a copy of its board, whose walls can be
+     * changed independently of this maze.
+     *
+     * @return the copy
+     */
+    public Maze copy() {
+        return new Maze(board.copy(), start, goal);
+    }
+
+    /**
+     * Returns the distance oracle of the maze. The oracle is computed on the
+     * first call and is recomputed only when the walls have changed since.
+     * This method can be called from any thread, as long as the walls are
+     * not modified concurrently.
+     *
+     * @return the distance oracle matching the current walls
+     */
+    public DistanceOracle getDistanceOracle() {
+        var oracle = distanceOracle;
+        if (oracle == null || oracle.getVersion() != board.getVersion()) {
+            synchronized (this) {
+                oracle = distanceOracle;
+                if (oracle == null || oracle.getVersion() != board.getVersion()) {
+                    oracle = new DistanceOracle(board, goal);
+                    distanceOracle = oracle;
+                }
+            }
+        }
+        return oracle;
+    }
+
+    /**
+     * Returns the trap map of the maze. The map is computed on the first
+     * call and is recomputed only when the walls have changed since, like
+     * the {@linkplain #getDistanceOracle() distance oracle}.
+     *
+     * @return the trap map matching the current walls
+     */
+    public TrapMap getTrapMap() {
+        var traps = trapMap;
+        if (traps == null || traps.getVersion() != board.getVersion()) {
+            synchronized (this) {
+                traps = trapMap;
+                if (traps == null || traps.getVersion() != board.getVersion()) {
+                    traps = new TrapMap(board, goal);
+                    trapMap = traps;
+                }
+            }
+        }
+        return traps;
+    }
+
+    /**
+     * Returns the trap map of the maze if it has already been computed for
+     * the current walls, without computing it.
+     *
+     * @return the trap map, or an empty {@code Optional} if it would have to be computed
+     */
+    public Optional<TrapMap> cachedTrapMap() {
+        var traps = trapMap;
+        return traps != null && traps.getVersion() == board.getVersion() ? Optional.of(traps) : Optional.empty();
+    }
+
+    /**
+     * Stores an oracle computed elsewhere, e.g. loaded from a cache, as the
+     * oracle of the maze, if it matches the current walls and the goal.
+     *
+     * @param oracle the oracle
+     */
+    synchronized void setDistanceOracle(DistanceOracle oracle) {
+        if (oracle.getVersion() == board.getVersion() && oracle.getGoal() == goal) {
+            distanceOracle = oracle;
+        }
+    }
+
+    /**
+     * {@return the start position of the ball}
+     */
+    public Position getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * {@return the goal position}
+     */
+    public Position getGoalPosition() {
+        return goalPosition;
+    }
+}
@@ -0,0 +1,360 @@
+package puzzle.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes mazes in a compact binary and in a human-readable text format.
+ * <p>
+ * The binary format is little-endian and consists of a header of six
+ * {@code int} values (magic number, format version, number of rows, number
+ * of columns, start cell, goal cell) followed by two bitsets of
+ * {@code ceil(rows * cols / 64)} {@code long} values each: the walls above
+ * the cells and the walls on the right of the cells. Binary files are read
+ * through a memory mapping, so loading even a 4096x4096 maze is a bulk copy
+ * of a few megabytes.
+ * <p>
+ * The text format starts with a {@code MAZE <rows> <cols>} header line,
+ * followed by a drawing of {@code 2 * rows + 1} lines of {@code 2 * cols + 1}
+ * characters each. Cells are at odd line and character positions, they are
+ * blank, {@code S} for the start or {@code G} for the goal. A {@code -} above
+ * a cell stands for a horizontal wall, a {@code |} on the right of a cell
+ * stands for a vertical wall, every other character is ignored. Lines
+ * starting with {@code #} before the header are comments.
+ * <pre>
+ * MAZE 2 3
+ * +-+-+-+
+ * |S|   |
+ * + +-+ +
+ * |    G|
+ * +-+-+-+
+ * </pre>
+ */
+public final class MazeIO {
+
+    /**
+     * The magic number at the beginning of binary maze files.
+     */
+    public static final int MAGIC = 0x5A4D4252;
+
+    /**
+     * The version of the binary format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header of binary maze files in bytes.
+     */
+    public static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private static final String TEXT_HEADER = "MAZE";
+
+    private MazeIO() {
+    }
+
+    /**
+     * Reads a maze from a file, detecting whether it is in binary or text format.
+     *
+     * @param path the path of the file
+     * @return the maze read
+     * @throws IOException if an I/O error occurs or the file is malformed
+     */
+    public static Maze read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var head = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(head, 0);
+            if (head.position() == Integer.BYTES && head.getInt(0) == MAGIC) {
+                return readBinary(channel);
+            }
+        }
+        return readText(path);
+    }
+
+    /**
+     * Reads the number of cells of a maze from the header of a file in
+     * binary or text format, without reading the walls.
+     *
+     * @param path the path of the file
+     * @return the number of cells of the maze
+     * @throws IOException if an I/O error occurs or the header is malformed
+     */
+    public static long readCellCount(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var head = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(head, 0);
+            if (head.position() >= Integer.BYTES && head.getInt(0) == MAGIC) {
+                if (head.position() < HEADER_SIZE) {
+                    throw new IOException("Truncated maze file");
+                }
+                return (long) head.getInt(2 * Integer.BYTES) * head.getInt(3 * Integer.BYTES);
+            }
+        }
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int[] size = readTextHeader(reader);
+            return (long) size[0] * size[1];
+        }
+    }
+
+    /**
+     * Reads a maze from a file in binary format.
+     *
+     * @param path the path of the file
+     * @return the maze read
+     * @throws IOException if an I/O error occurs or the file is malformed
+     */
+    public static Maze readBinary(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readBinary(channel);
+        }
+    }
+
+    private static Maze readBinary(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Truncated maze file");
+        }
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary maze file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported maze file version: " + version);
+        }
+        int rows = buffer.getInt();
+        int cols = buffer.getInt();
+        int start = buffer.getInt();
+        int goal = buffer.getInt();
+        var board = createBoard(rows, cols);
+        int words = wordCount(board);
+        if (channel.size() < HEADER_SIZE + 2L * words * Long.BYTES) {
+            throw new IOException("Truncated maze file");
+        }
+        LongBuffer bits = buffer.asLongBuffer();
+        long[] up = new long[words];
+        long[] right = new long[words];
+        bits.get(up);
+        bits.get(right);
+        board.setWallBits(up, right);
+        return createMaze(board, start, goal);
+    }
+
+    /**
+     * Writes a maze to a file in binary format.
+     *
+     * @param maze the maze to write
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeBinary(Maze maze, Path path) throws IOException {
+        var board = maze.getBoard();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeBinaryHeader(channel, board.getRows(), board.getCols(), maze.getStart(), maze.getGoal());
+            writeBits(channel, board.wallBits(Direction.UP));
+            writeBits(channel, board.wallBits(Direction.RIGHT));
+        }
+    }
+
+    /**
+     * Writes the header of a binary maze file to the current position of the channel.
+     *
+     * @param channel the channel to write to
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param start the index of the start cell
+     * @param goal the index of the goal cell
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeBinaryHeader(FileChannel channel, int rows, int cols, int start, int goal)
+            throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(start).putInt(goal)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private static void writeBits(FileChannel channel, long[] bits) throws IOException {
+        var buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : bits) {
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.putLong(word);
+        }
+        flush(channel, buffer);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads a maze from a file in text format.
+     *
+     * @param path the path of the file
+     * @return the maze read
+     * @throws IOException if an I/O error occurs or the file is malformed
+     */
+    public static Maze readText(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return readText(reader);
+        }
+    }
+
+    /**
+     * Reads a maze in text format.
+     *
+     * @param reader the reader to read from
+     * @return the maze read
+     * @throws IOException if an I/O error occurs or the input is malformed
+     */
+    public static Maze readText(BufferedReader reader) throws IOException {
+        int[] size = readTextHeader(reader);
+        var board = createBoard(size[0], size[1]);
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int start = -1;
+        int goal = -1;
+        for (int lineIndex = 0; lineIndex <= 2 * rows; lineIndex++) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Unexpected end of maze after line " + lineIndex);
+            }
+            int row = lineIndex / 2;
+            if (lineIndex % 2 == 0) {
+                for (int col = 0; col < cols && 2 * col + 1 < line.length(); col++) {
+                    if (row > 0 && row < rows && line.charAt(2 * col + 1) == '-') {
+                        board.addWall(row, col, Direction.UP);
+                    }
+                }
+            } else {
+                for (int col = 0; col < cols && 2 * col + 1 < line.length(); col++) {
+                    char c = line.charAt(2 * col + 1);
+                    if (c == 'S') {
+                        start = board.cell(row, col);
+                    } else if (c == 'G') {
+                        goal = board.cell(row, col);
+                    }
+                    if (col < cols - 1 && 2 * col + 2 < line.length() && line.charAt(2 * col + 2) == '|') {
+                        board.addWall(row, col, Direction.RIGHT);
+                    }
+                }
+            }
+        }
+        if (start < 0 || goal < 0) {
+            throw new IOException("The maze must have a start (S) and a goal (G) cell");
+        }
+        return createMaze(board, start, goal);
+    }
+
+    /**
+     * Writes a maze to a file in text format.
+     *
+     * @param maze the maze to write
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeText(Maze maze, Path path) throws IOException {
+        try (var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeText(maze, writer);
+        }
+    }
+
+    /**
+     * Writes a maze in text format.
+     *
+     * @param maze the maze to write
+     * @param writer the writer to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeText(Maze maze, BufferedWriter writer) throws IOException {
+        var board = maze.getBoard();
+        int rows = board.getRows();
+        int cols = board.getCols();
+        writer.write(TEXT_HEADER + " " + rows + " " + cols);
+        writer.newLine();
+        var line = new char[2 * cols + 1];
+        for (int row = 0; row <= rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                boolean wall = row == 0 || row == rows || board.hasWall(board.cell(row, col), Direction.UP);
+                line[2 * col] = '+';
+                line[2 * col + 1] = wall ? '-' : ' ';
+            }
+            line[2 * cols] = '+';
+            writer.write(line);
+            writer.newLine();
+            if (row == rows) {
+                break;
+            }
+            line[0] = '|';
+            for (int col = 0; col < cols; col++) {
+                int cell = board.cell(row, col);
+                line[2 * col + 1] = cell == maze.getStart() ? 'S' : cell == maze.getGoal() ? 'G' : ' ';
+                boolean wall = col == cols - 1 || board.hasWall(cell, Direction.RIGHT);
+                line[2 * col + 2] = wall ? '|' : ' ';
+            }
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Skips the comments and reads the header line of a maze in text format.
+     *
+     * @return the number of rows and columns
+     */
+    private static int[] readTextHeader(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.startsWith("#")) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            throw new IOException("Missing maze header");
+        }
+        var header = line.trim().split("\\s+");
+        if (header.length != 3 || !header[0].equals(TEXT_HEADER)) {
+            throw new IOException("Invalid maze header: " + line);
+        }
+        try {
+            return new int[] {Integer.parseInt(header[1]), Integer.parseInt(header[2])};
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid maze header: " + line, e);
+        }
+    }
+
+    private static Board createBoard(int rows, int cols) throws IOException {
+        try {
+            return new Board(rows, cols);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static Maze createMaze(Board board, int start, int goal) throws IOException {
+        try {
+            return new Maze(board, start, goal);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static int wordCount(Board board) {
+        return (int) (((long) board.getCellCount() + 63) >>> 6);
+    }
+}
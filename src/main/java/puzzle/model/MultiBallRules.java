@@ -0,0 +1,250 @@
+package puzzle.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Implements the rules of the variant of the puzzle with several balls,
+ * on states packed into a single {@code long}.
+ * <p>
+ * Every move tilts the board: all balls roll in the same direction until
+ * they hit a wall, the edge of the board or another ball, the ball ahead
+ * stopping first. The move is legal if at least one ball moves. The puzzle
+ * is solved when the first ball stops on the goal, the other balls are only
+ * obstacles. Since they are interchangeable, the cells of the other balls
+ * are kept sorted, so that every arrangement has a single packed form.
+ * <p>
+ * A packed state holds the cell index of every ball in a field of
+ * {@link #getBitsPerBall()} bits, the first ball in the lowest bits. States
+ * are hashed with Zobrist keys: the hash is the exclusive or of a random key
+ * for every ball and cell, so it is well spread over all 64 bits whatever
+ * the layout of the fields. The rules are immutable and can be shared
+ * between threads, but the walls of the board must not change while they
+ * are used.
+ */
+public final class MultiBallRules {
+
+    /**
+     * The maximum number of balls.
+     */
+    public static final int MAX_BALLS = 4;
+
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    private final Maze maze;
+    private final Board board;
+    private final int balls;
+    private final int bits;
+    private final long fieldMask;
+    private final long[] zobrist;
+
+    /**
+     * Creates the rules of a maze with the number of balls specified.
+     *
+     * @param maze the maze, whose goal is the goal of the first ball
+     * @param balls the number of balls
+     * @throws IllegalArgumentException if the number of balls is not between
+     *                                  {@code 1} and {@link #MAX_BALLS}, or the
+     *                                  cell indices of the balls do not fit in a {@code long}
+     */
+    public MultiBallRules(Maze maze, int balls) {
+        int cells = maze.getBoard().getCellCount();
+        int bits = Math.max(1, 64 - Long.numberOfLeadingZeros(cells - 1L));
+        if (balls < 1 || balls > MAX_BALLS || balls * bits > Long.SIZE) {
+            throw new IllegalArgumentException("Invalid number of balls: " + balls);
+        }
+        this.maze = maze;
+        this.board = maze.getBoard();
+        this.balls = balls;
+        this.bits = bits;
+        fieldMask = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+        zobrist = new long[balls * cells];
+        var random = new SplittableRandom(ZOBRIST_SEED);
+        for (int i = 0; i < zobrist.length; i++) {
+            zobrist[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * {@return the maze}
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * {@return the number of balls}
+     */
+    public int getBallCount() {
+        return balls;
+    }
+
+    /**
+     * {@return the number of bits of the cell index of a ball in a packed state}
+     */
+    public int getBitsPerBall() {
+        return bits;
+    }
+
+    /**
+     * Packs the cells of the balls into a state.
+     *
+     * @param cells the index of the cell of every ball, starting with the ball that has to reach the goal
+     * @return the packed state
+     * @throws IllegalArgumentException if the number of cells does not match
+     *                                  the number of balls, a cell is not on the
+     *                                  board, or two balls are on the same cell
+     */
+    public long pack(int... cells) {
+        if (cells.length != balls) {
+            throw new IllegalArgumentException("Expected " + balls + " balls");
+        }
+        int[] sorted = cells.clone();
+        Arrays.sort(sorted, 1, balls);
+        for (int i = 0; i < balls; i++) {
+            if (sorted[i] < 0 || sorted[i] >= board.getCellCount()) {
+                throw new IllegalArgumentException("Invalid cell: " + sorted[i]);
+            }
+            for (int j = 0; j < i; j++) {
+                if (sorted[i] == sorted[j]) {
+                    throw new IllegalArgumentException("Two balls on cell " + sorted[i]);
+                }
+            }
+        }
+        return packSorted(sorted);
+    }
+
+    private long packSorted(int[] cells) {
+        long state = 0;
+        for (int i = balls - 1; i >= 0; i--) {
+            state = state << bits | cells[i];
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks the cells of the balls of a state.
+     *
+     * @param state the packed state
+     * @return the index of the cell of every ball, starting with the ball that has to reach the goal
+     */
+    public int[] unpack(long state) {
+        int[] cells = new int[balls];
+        for (int i = 0; i < balls; i++) {
+            cells[i] = ball(state, i);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the cell of a ball of a state.
+     *
+     * @param state the packed state
+     * @param index the index of the ball, {@code 0} being the ball that has to reach the goal
+     * @return the index of the cell of the ball
+     */
+    public int ball(long state, int index) {
+        return (int) (state >>> (index * bits) & fieldMask);
+    }
+
+    /**
+     * {@return whether the first ball of the state is on the goal}
+     *
+     * @param state the packed state
+     */
+    public boolean isSolved(long state) {
+        return ball(state, 0) == maze.getGoal();
+    }
+
+    /**
+     * Computes the Zobrist hash of a state.
+     *
+     * @param state the packed state
+     * @return the hash
+     */
+    public long hash(long state) {
+        int cells = board.getCellCount();
+        long hash = 0;
+        for (int i = 0; i < balls; i++) {
+            hash ^= zobrist[i * cells + ball(state, i)];
+        }
+        return hash;
+    }
+
+    /**
+     * Tilts the board in the direction specified.
+     *
+     * @param state the packed state
+     * @param direction the direction of the move
+     * @return the packed state after the move, which equals the state given
+     *         if the move is not legal
+     */
+    public long tilt(long state, Direction direction) {
+        var table = board.getSlideTable();
+        // Rolling to the right or down moves towards higher indices, so the
+        // ball with the highest index is ahead of the others on its line.
+        // The balls are sorted from the one ahead into two bits per ball of
+        // an int, and the cells are updated in the packed state itself, so
+        // the tilt allocates nothing.
+        boolean forward = board.step(direction) > 0;
+        int order = 0;
+        for (int i = 0; i < balls; i++) {
+            int cell = ball(state, i);
+            int j = i;
+            for (; j > 0; j--) {
+                int previous = order >>> 2 * (j - 1) & 3;
+                int previousCell = ball(state, previous);
+                if (forward ? previousCell >= cell : previousCell <= cell) {
+                    break;
+                }
+                order = order & ~(3 << 2 * j) | previous << 2 * j;
+            }
+            order = order & ~(3 << 2 * j) | i << 2 * j;
+        }
+        long next = state;
+        for (int i = 0; i < balls; i++) {
+            int ball = order >>> 2 * i & 3;
+            next = withBall(next, ball, roll(table, next, ball, direction));
+        }
+        for (int i = 2; i < balls; i++) {
+            int cell = ball(next, i);
+            int j = i;
+            for (; j > 1 && ball(next, j - 1) > cell; j--) {
+                next = withBall(next, j, ball(next, j - 1));
+            }
+            next = withBall(next, j, cell);
+        }
+        return next;
+    }
+
+    private long withBall(long state, int index, int cell) {
+        int shift = index * bits;
+        return state & ~(fieldMask << shift) | (long) cell << shift;
+    }
+
+    /**
+     * Rolls a ball and stops it next to the first ball on its way.
+     */
+    private int roll(SlideTable table, long state, int ball, Direction direction) {
+        int from = ball(state, ball);
+        int to = table.destination(from, direction);
+        if (to == from) {
+            return from;
+        }
+        int step = board.step(direction);
+        boolean horizontal = direction == Direction.LEFT || direction == Direction.RIGHT;
+        for (int other = 0; other < balls; other++) {
+            int cell = ball(state, other);
+            if (other == ball || (step > 0 ? cell <= from || cell > to : cell >= from || cell < to)) {
+                continue;
+            }
+            boolean onLine = horizontal
+                    ? board.row(cell) == board.row(from)
+                    : board.col(cell) == board.col(from);
+            if (onLine) {
+                to = cell - step;
+            }
+        }
+        return to;
+    }
+}
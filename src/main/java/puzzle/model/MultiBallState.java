@@ -0,0 +1,142 @@
+package puzzle.model;
+
+import puzzle.State;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Represents the state of the variant of the puzzle with several balls.
+ * <p>
+ * The state is a single packed {@code long} interpreted by shared
+ * {@link MultiBallRules}, so cloning it copies two fields, and its hash code
+ * is derived from the Zobrist hash of the packed state.
+ */
+public final class MultiBallState implements State<Direction> {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final MultiBallRules rules;
+    private long balls;
+
+    /**
+     * Creates a {@code MultiBallState} object with the balls on the cells specified.
+     *
+     * @param maze the maze, whose goal is the goal of the first ball
+     * @param cells the index of the cell of every ball, starting with the ball that has to reach the goal
+     * @throws IllegalArgumentException if the balls are not valid, see {@link MultiBallRules#pack(int...)}
+     */
+    public MultiBallState(Maze maze, int... cells) {
+        this(new MultiBallRules(maze, cells.length), 0);
+        balls = rules.pack(cells);
+    }
+
+    /**
+     * Creates a {@code MultiBallState} object from a packed state.
+     *
+     * @param rules the rules of the puzzle
+     * @param balls the packed state
+     */
+    public MultiBallState(MultiBallRules rules, long balls) {
+        this.rules = rules;
+        this.balls = balls;
+    }
+
+    /**
+     * {@return the rules of the puzzle}
+     */
+    public MultiBallRules getRules() {
+        return rules;
+    }
+
+    /**
+     * {@return the packed state}
+     */
+    public long getPacked() {
+        return balls;
+    }
+
+    /**
+     * {@return the index of the cell of every ball, starting with the ball that has to reach the goal}
+     */
+    public int[] getBalls() {
+        return rules.unpack(balls);
+    }
+
+    /**
+     * {@return whether the puzzle is solved}
+     */
+    @Override
+    public boolean isSolved() {
+        return rules.isSolved(balls);
+    }
+
+    /**
+     * {@return whether the move provided can be applied to the state}
+     *
+     * @param move represents the move to be made
+     */
+    @Override
+    public boolean isLegalMove(Direction move) {
+        return rules.tilt(balls, move) != balls;
+    }
+
+    /**
+     * Applies the move provided to the state. This method should be called if
+     * and only if {@link #isLegalMove(Direction)} returns {@code true}.
+     *
+     * @param move represents the move to be made
+     */
+    @Override
+    public void makeMove(Direction move) {
+        balls = rules.tilt(balls, move);
+    }
+
+    /**
+     * Gets all legal moves available in the current state.
+     *
+     * @return a set containing all legal moves that can be applied to this state
+     */
+    @Override
+    public Set<Direction> getLegalMoves() {
+        var moves = EnumSet.noneOf(Direction.class);
+        for (Direction direction : DIRECTIONS) {
+            if (isLegalMove(direction)) {
+                moves.add(direction);
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = rules.hash(balls);
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) return false;
+        MultiBallState state = (MultiBallState) o;
+        return balls == state.balls && rules == state.rules;
+    }
+
+    /**
+     * Creates and returns a copy of the puzzle state sharing the same rules.
+     *
+     * @return a new {@code MultiBallState} object representing an identical copy of the current state
+     */
+    @Override
+    public MultiBallState clone() {
+        return new MultiBallState(rules, balls);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(getBalls());
+    }
+}
@@ -8,6 +8,37 @@ package puzzle.model;
  */
 public record Position(int row, int col) {
 
+    /**
+     * The size of the square of positions that are interned by {@link #of(int, int)}.
+     */
+    public static final int CACHE_SIZE = 128;
+
+    private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int row = 0; row < CACHE_SIZE; row++) {
+            for (int col = 0; col < CACHE_SIZE; col++) {
+                CACHE[row * CACHE_SIZE + col] = new Position(row, col);
+            }
+        }
+    }
+
+    /**
+     * Returns a position with the specified coordinates. Positions with both
+     * coordinates in the range from 0 (inclusive) to {@link #CACHE_SIZE}
+     * (exclusive) are interned, so no object is allocated for them.
+     *
+     * @param row the row coordinate of the position
+     * @param col the column coordinate of the position
+     * @return the position with the specified coordinates
+     */
+    public static Position of(int row, int col) {
+        if (row >= 0 && row < CACHE_SIZE && col >= 0 && col < CACHE_SIZE) {
+            return CACHE[row * CACHE_SIZE + col];
+        }
+        return new Position(row, col);
+    }
+
     /**
      * Moves the position in the specified direction.
      *
@@ -15,7 +46,7 @@ public record Position(int row, int col) {
      * @return the new position after moving in the specified direction
      */
     public Position move(Direction direction) {
-        return new Position(row + direction.getRowChange(), col + direction.getColChange());
+        return of(row + direction.getRowChange(), col + direction.getColChange());
     }
 
     /**
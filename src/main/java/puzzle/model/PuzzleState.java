@@ -12,115 +12,92 @@ import java.util.*;
 public class PuzzleState implements State<Direction> {
 
     /**
-     * The size of the board.
+     * The size of the board of the original maze.
      */
     public static final int BOARD_SIZE = 7;
 
+    private final Maze maze;
+    private final RollingBallEngine engine;
     private final ReadOnlyObjectWrapper<Position> ballPosition;
     private final ReadOnlyBooleanWrapper solved;
 
-    private static final boolean[][] UP = new boolean[BOARD_SIZE][BOARD_SIZE];
-    private static final boolean[][] RIGHT = new boolean[BOARD_SIZE][BOARD_SIZE];
-    private static final boolean[][] DOWN = new boolean[BOARD_SIZE][BOARD_SIZE];
-    private static final boolean[][] LEFT = new boolean[BOARD_SIZE][BOARD_SIZE];
-
-    static {
-        initializeWalls();
+    /**
+     * Creates a {@code PuzzleState} object that corresponds to the original
+     * initial state of the puzzle.
+     */
+    public PuzzleState() {
+        this(Maze.original());
     }
 
     /**
-     * Initializes the walls on the board.
-     * The walls indicate the positions where movement is restricted.
+     * Creates a {@code PuzzleState} object with the ball on the start cell of
+     * the maze specified.
+     *
+     * @param maze the maze
      */
-    private static void initializeWalls() {
-        // It shows where we can't move through
-        UP[1][2] = true;
-        UP[1][6] = true;
-        UP[3][1] = true;
-        UP[4][3] = true;
-        UP[4][6] = true;
-        UP[5][0] = true;
-        UP[5][4] = true;
-        UP[6][2] = true;
-
-        RIGHT[0][0] = true;
-        RIGHT[0][3] = true;
-        RIGHT[2][2] = true;
-        RIGHT[2][5] = true;
-        RIGHT[3][3] = true;
-        RIGHT[3][4] = true;
-        RIGHT[5][1] = true;
-        RIGHT[5][2] = true;
-        RIGHT[6][3] = true;
-        RIGHT[6][5] = true;
-
-        DOWN[0][2] = true;
-        DOWN[0][6] = true;
-        DOWN[2][1] = true;
-        DOWN[3][3] = true;
-        DOWN[3][6] = true;
-        DOWN[4][0] = true;
-        DOWN[4][4] = true;
-        DOWN[5][2] = true;
-
-        LEFT[0][1] = true;
-        LEFT[0][4] = true;
-        LEFT[2][3] = true;
-        LEFT[2][6] = true;
-        LEFT[3][4] = true;
-        LEFT[3][5] = true;
-        LEFT[5][2] = true;
-        LEFT[5][3] = true;
-        LEFT[6][4] = true;
-        LEFT[6][6] = true;
+    public PuzzleState(Maze maze) {
+        this(maze, maze.getStartPosition());
     }
 
     /**
-     * Creates a {@code PuzzleState} object that corresponds to the original
-     * initial state of the puzzle.
+     * Creates a {@code PuzzleState} object of the original maze initializing
+     * the position of the ball. The constructor expects the ball position or
+     * a {@code Position} object.
+     *
+     * @param ballPosition the initial position of the ball.
      */
-    public PuzzleState() {
-        this(new Position(1, 4));
+    public PuzzleState(Position ballPosition) {
+        this(Maze.original(), ballPosition);
     }
 
     /**
-     * Creates a {@code PuzzleState} object initializing the position of the
-     * ball. The constructor expects the ball position or a {@code Position}
-     * object.
+     * Creates a {@code PuzzleState} object initializing the maze and the
+     * position of the ball.
      *
+     * @param maze the maze
      * @param ballPosition the initial position of the ball.
      */
-    public PuzzleState(Position ballPosition) {
+    public PuzzleState(Maze maze, Position ballPosition) {
+        this.maze = maze;
         checkPositions(ballPosition);
+        var board = maze.getBoard();
+        engine = new RollingBallEngine(board, board.cell(ballPosition.row(), ballPosition.col()), maze.getGoal());
         this.ballPosition = new ReadOnlyObjectWrapper<>(ballPosition);
         solved = new ReadOnlyBooleanWrapper();
         solved.bind(this.ballPosition.isEqualTo(getGoalPosition()));
     }
 
     /**
-     * Represents the types of walls on the board.
+     * Creates a {@code PuzzleState} object from a headless state. The ball
+     * is placed on the same cell of the same maze as in the headless state.
+     *
+     * @param state the headless state
      */
-    public enum Wall {
-        VERTICAL,
-        HORIZONTAL
+    public PuzzleState(HeadlessPuzzleState state) {
+        this(state.getMaze(), state.getBallPosition());
     }
 
     /**
-     * Gets the wall positions in a set.
+     * Gets the wall positions in a set. Prefer {@link #getWallIndex()}, which
+     * does not create any objects.
      *
      * @return the set of wall positions
      */
     public Set<WallPosition> getWalls() {
         Set<WallPosition> walls = new HashSet<>();
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                if (UP[row][col]) walls.add(new WallPosition(row, col, Wall.HORIZONTAL));
-                if (RIGHT[row][col]) walls.add(new WallPosition(row, col, Wall.VERTICAL));
-            }
-        }
+        getWallIndex().forEach((row, col, wall) -> walls.add(new WallPosition(row, col, wall)));
         return walls;
     }
 
+    /**
+     * Gets the index of the walls of the maze.
+     *
+     * @return the wall index
+     */
+    public WallIndex getWallIndex() {
+        return maze.getBoard().getWallIndex();
+    }
+
     /**
      * Gets the current position of the ball.
      *
@@ -130,13 +107,31 @@ public class PuzzleState implements State<Direction> {
         return ballPosition.get();
     }
 
+    /**
+     * Gets the index of the cell of the ball on the board of the maze.
+     *
+     * @return the index of the cell of the ball
+     */
+    public int getBall() {
+        return engine.getBall();
+    }
+
+    /**
+     * Gets the maze of the puzzle.
+     *
+     * @return the maze of the puzzle
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
     /**
      * Gets the goal position.
      *
      * @return the goal position
      */
     public Position getGoalPosition() {
-        return new Position(5, 2);
+        return maze.getGoalPosition();
     }
 
     /**
@@ -164,12 +159,7 @@ public class PuzzleState implements State<Direction> {
      */
     @Override
     public boolean isLegalMove(Direction move) {
-        return switch (move) {
-            case UP -> canMoveUp();
-            case RIGHT -> canMoveRight();
-            case DOWN -> canMoveDown();
-            case LEFT -> canMoveLeft();
-        };
+        return engine.isLegalMove(move);
     }
 
     private void checkPositions(Position position) {
@@ -186,82 +176,38 @@ public class PuzzleState implements State<Direction> {
      */
     @Override
     public void makeMove(Direction move) {
-        switch (move) {
-            case UP -> moveUp();
-            case RIGHT -> moveRight();
-            case DOWN -> moveDown();
-            case LEFT -> moveLeft();
-        }
+        engine.makeMove(move);
+        int ball = engine.getBall();
+        var board = maze.getBoard();
+        ballPosition.set(Position.of(board.row(ball), board.col(ball)));
     }
 
     /**
-     * Moves the ball in the specified direction until it cannot move further.
-     *
-     * @param direction the direction in which the ball should move
-     */
-    private void moveBall(Direction direction) {
-        Position newPosition = getBallPosition().move(direction);
-        while (isLegalMove(direction) && isOnBoard(newPosition)) {
-            ballPosition.set(newPosition);
-            newPosition = getBallPosition().move(direction);
-        }
-    }
-
-    private void moveUp() {
-        moveBall(Direction.UP);
-    }
-
-    private void moveRight() {
-        moveBall(Direction.RIGHT);
-    }
-
-    private void moveDown() {
-        moveBall(Direction.DOWN);
-    }
-
-    private void moveLeft() {
-        moveBall(Direction.LEFT);
-    }
-
-    /**
-     * Gets all legal moves available in the current state.
+     * Gets all legal moves available in the current state. The set returned
+     * is immutable.
      *
      * @return a set containing all legal moves that can be applied to this state
      */
     @Override
     public Set<Direction> getLegalMoves() {
-        var moves = EnumSet.noneOf(Direction.class);
-        for (Direction direction : Direction.values()) {
-            if (isLegalMove(direction)) {
-                moves.add(direction);
-            }
-        }
-        return moves;
+        return engine.getLegalMoveSet();
     }
 
     private boolean isOnBoard(Position position) {
-        return (position.row() >= 0 && position.row() < BOARD_SIZE) &&
-                (position.col() >= 0 && position.col() < BOARD_SIZE);
-    }
-
-    private boolean canMoveUp() {
-        return getBallPosition().row() > 0 && !UP[getBallPosition().row()][getBallPosition().col()];
+        return maze.getBoard().isOnBoard(position.row(), position.col());
     }
 
-    private boolean canMoveRight() {
-        return getBallPosition().col() < BOARD_SIZE - 1 && !RIGHT[getBallPosition().row()][getBallPosition().col()];
-    }
-
-    private boolean canMoveDown() {
-        return getBallPosition().row() < BOARD_SIZE - 1 && !DOWN[getBallPosition().row()][getBallPosition().col()];
-    }
-
-    private boolean canMoveLeft() {
-        return getBallPosition().col() > 0 && !LEFT[getBallPosition().row()][getBallPosition().col()];
+    /**
+     * Creates a headless copy of the state that shares the board of this state.
+     *
+     * @return a {@code HeadlessPuzzleState} object with the ball on the same cell
+     */
+    public HeadlessPuzzleState toHeadless() {
+        return new HeadlessPuzzleState(maze, engine.getBall());
     }
 
     public int hashCode() {
-        return Objects.hash(ballPosition.get());
+        return ballPosition.get().hashCode();
     }
 
     @Override
@@ -271,7 +217,7 @@ public class PuzzleState implements State<Direction> {
         }
         if (o == null || getClass() != o.getClass()) return false;
         PuzzleState state = (PuzzleState) o;
-        return ballPosition.get().equals(state.ballPosition.get());
+        return maze == state.maze && ballPosition.get().equals(state.ballPosition.get());
     }
 
     /**
@@ -281,8 +227,7 @@ public class PuzzleState implements State<Direction> {
      */
     @Override
     public PuzzleState clone() {
-        return new PuzzleState(new Position(getBallPosition().row(),
-                getBallPosition().col()));
+        return new PuzzleState(maze, getBallPosition());
     }
 
     public String toString() {
@@ -0,0 +1,115 @@
+package puzzle.model;
+
+import java.util.Set;
+
+/**
+ * Implements the rules of the rolling ball on a {@link Board}.
+ * <p>
+ * The ball is stored as a single cell index and moves are looked up in the
+ * {@link SlideTable} of the board, so that checking and making moves does not
+ * allocate any objects. The engine is not thread-safe.
+ */
+public final class RollingBallEngine {
+
+    private final Board board;
+    private final int goal;
+    private int ball;
+
+    /**
+     * Creates an engine with the ball placed on the cell specified.
+     *
+     * @param board the board the ball rolls on
+     * @param ball the index of the cell of the ball
+     * @param goal the index of the goal cell
+     */
+    public RollingBallEngine(Board board, int ball, int goal) {
+        checkCell(board, ball);
+        checkCell(board, goal);
+        this.board = board;
+        this.ball = ball;
+        this.goal = goal;
+    }
+
+    private static void checkCell(Board board, int cell) {
+        if (cell < 0 || cell >= board.getCellCount()) {
+            throw new IllegalArgumentException("Invalid cell: " + cell);
+        }
+    }
+
+    /**
+     * {@return the board the ball rolls on}
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * {@return the index of the cell of the ball}
+     */
+    public int getBall() {
+        return ball;
+    }
+
+    /**
+     * Places the ball on the cell specified.
+     *
+     * @param ball the index of the cell
+     */
+    public void setBall(int ball) {
+        checkCell(board, ball);
+        this.ball = ball;
+    }
+
+    /**
+     * {@return the index of the goal cell}
+     */
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * {@return whether the ball is on the goal cell}
+     */
+    public boolean isSolved() {
+        return ball == goal;
+    }
+
+    /**
+     * {@return whether the ball can be moved in the direction specified}
+     *
+     * @param direction the direction of the move
+     */
+    public boolean isLegalMove(Direction direction) {
+        return board.getSlideTable().destination(ball, direction) != ball;
+    }
+
+    /**
+     * Returns the legal moves as a bitmask, where bit {@code i} is set if
+     * and only if the direction with ordinal {@code i} is a legal move.
+     *
+     * @return the bitmask of the legal moves
+     */
+    public int getLegalMoves() {
+        return board.getSlideTable().legalMoves(ball);
+    }
+
+    /**
+     * Returns the legal moves as an immutable set shared between all cells
+     * with the same legal moves.
+     *
+     * @return the set of the legal moves
+     */
+    public Set<Direction> getLegalMoveSet() {
+        return board.getSlideTable().legalMoveSet(ball);
+    }
+
+    /**
+     * Rolls the ball in the direction specified until it hits a wall or the
+     * edge of the board.
+     *
+     * @param direction the direction of the move
+     */
+    public void makeMove(Direction direction) {
+        ball = board.getSlideTable().destination(ball, direction);
+    }
+}
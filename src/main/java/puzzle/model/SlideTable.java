@@ -0,0 +1,180 @@
+package puzzle.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precomputed destinations of every possible roll on a {@link Board}.
+ * <p>
+ * The table stores for each cell and direction the index of the cell where
+ * the ball stops, so that making a move is a single array read. A direction
+ * is a legal move from a cell if and only if its destination differs from
+ * the cell itself. Use {@link Board#getSlideTable()} to get an up-to-date
+ * table: the table cached by the board is repaired in place when a wall
+ * changes, by recomputing the single row or column whose rolls the wall
+ * affects, so it must not be read while the walls are being modified.
+ */
+public final class SlideTable {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final List<Set<Direction>> MOVE_SETS = createMoveSets();
+
+    /**
+     * The maximum number of cells of a board the table can be built for.
+     */
+    public static final int MAX_CELLS = Integer.MAX_VALUE / 4;
+
+    private final int[] destinations;
+    private final byte[] legalMoves;
+    private long version;
+
+    /**
+     * Builds the table from the current walls of the board.
+     *
+     * @param board the board
+     * @throws IllegalStateException if the board has more than {@link #MAX_CELLS} cells
+     */
+    public SlideTable(Board board) {
+        int cells = board.getCellCount();
+        if (cells > MAX_CELLS) {
+            throw new IllegalStateException("The board has too many cells for a slide table: " + cells
+                    + ", use IDA* which does not need one");
+        }
+        destinations = new int[cells * 4];
+        legalMoves = new byte[cells];
+        version = board.getVersion();
+        int rows = board.getRows();
+        int cols = board.getCols();
+        for (int row = 0, cell = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++, cell++) {
+                set(cell, Direction.LEFT, col == 0 || board.hasWall(cell, Direction.LEFT)
+                        ? cell : destinations[(cell - 1) * 4 + Direction.LEFT.ordinal()]);
+                set(cell, Direction.UP, row == 0 || board.hasWall(cell, Direction.UP)
+                        ? cell : destinations[(cell - cols) * 4 + Direction.UP.ordinal()]);
+            }
+        }
+        for (int row = rows - 1, cell = cells - 1; row >= 0; row--) {
+            for (int col = cols - 1; col >= 0; col--, cell--) {
+                set(cell, Direction.RIGHT, col == cols - 1 || board.hasWall(cell, Direction.RIGHT)
+                        ? cell : destinations[(cell + 1) * 4 + Direction.RIGHT.ordinal()]);
+                set(cell, Direction.DOWN, row == rows - 1 || board.hasWall(cell, Direction.DOWN)
+                        ? cell : destinations[(cell + cols) * 4 + Direction.DOWN.ordinal()]);
+            }
+        }
+    }
+
+    private static List<Set<Direction>> createMoveSets() {
+        @SuppressWarnings("unchecked")
+        Set<Direction>[] sets = new Set[1 << DIRECTIONS.length];
+        for (int mask = 0; mask < sets.length; mask++) {
+            var moves = EnumSet.noneOf(Direction.class);
+            for (Direction direction : DIRECTIONS) {
+                if ((mask & (1 << direction.ordinal())) != 0) {
+                    moves.add(direction);
+                }
+            }
+            sets[mask] = Collections.unmodifiableSet(moves);
+        }
+        return List.of(sets);
+    }
+
+    private void set(int cell, Direction direction, int destination) {
+        destinations[cell * 4 + direction.ordinal()] = destination;
+        if (destination != cell) {
+            legalMoves[cell] |= (byte) (1 << direction.ordinal());
+        } else {
+            legalMoves[cell] &= (byte) ~(1 << direction.ordinal());
+        }
+    }
+
+    /**
+     * Updates the table after the wall on the specified side of the cell has
+     * been placed or removed. A vertical wall only affects the horizontal
+     * rolls of its row, a horizontal wall only the vertical rolls of its
+     * column, so only these are recomputed.
+     *
+     * @param board the board, with the wall already changed
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param side the side of the cell
+     */
+    void repair(Board board, int row, int col, Direction side) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        if (side == Direction.LEFT || side == Direction.RIGHT) {
+            int first = row * cols;
+            int last = first + cols - 1;
+            for (int cell = first; cell <= last; cell++) {
+                set(cell, Direction.LEFT, cell == first || board.hasWall(cell, Direction.LEFT)
+                        ? cell : destination(cell - 1, Direction.LEFT));
+            }
+            for (int cell = last; cell >= first; cell--) {
+                set(cell, Direction.RIGHT, cell == last || board.hasWall(cell, Direction.RIGHT)
+                        ? cell : destination(cell + 1, Direction.RIGHT));
+            }
+        } else {
+            int first = col;
+            int last = (rows - 1) * cols + col;
+            for (int cell = first; cell <= last; cell += cols) {
+                set(cell, Direction.UP, cell == first || board.hasWall(cell, Direction.UP)
+                        ? cell : destination(cell - cols, Direction.UP));
+            }
+            for (int cell = last; cell >= first; cell -= cols) {
+                set(cell, Direction.DOWN, cell == last || board.hasWall(cell, Direction.DOWN)
+                        ? cell : destination(cell + cols, Direction.DOWN));
+            }
+        }
+        version = board.getVersion();
+    }
+
+    /**
+     * {@return the version of the board the table was built from}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@return the number of cells covered by the table}
+     */
+    public int getCellCount() {
+        return legalMoves.length;
+    }
+
+    /**
+     * Returns the cell where the ball stops when it is rolled from the cell
+     * specified. If the ball cannot move, the cell itself is returned.
+     *
+     * @param cell the index of the cell the ball starts from
+     * @param direction the direction of the move
+     * @return the index of the cell where the ball stops
+     */
+    public int destination(int cell, Direction direction) {
+        return destinations[cell * 4 + direction.ordinal()];
+    }
+
+    /**
+     * Returns the legal moves from the cell as a bitmask, where bit {@code i}
+     * is set if and only if the direction with ordinal {@code i} is a legal move.
+     *
+     * @param cell the index of the cell
+     * @return the bitmask of the legal moves
+     */
+    public int legalMoves(int cell) {
+        return legalMoves[cell];
+    }
+
+    /**
+     * Returns the legal moves from the cell as an immutable set. The sets are
+     * shared, calling this method does not allocate.
+     *
+     * @param cell the index of the cell
+     * @return the set of the legal moves
+     */
+    public Set<Direction> legalMoveSet(int cell) {
+        return MOVE_SETS.get(legalMoves[cell]);
+    }
+}
@@ -0,0 +1,337 @@
+package puzzle.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent cache of the solutions and distance oracles of mazes, shared
+ * by all processes using the same directory.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the size, the start, the goal and
+ * the walls of the maze, so a maze is found again whatever file it was
+ * loaded from. Each entry is a file holding a little-endian header, the
+ * moves of an optimal solution, one byte each, and the distance and first
+ * move tables of the {@link DistanceOracle}. Entries are read through a
+ * memory mapping.
+ * <p>
+ * Entries are written to a temporary file first and then moved atomically
+ * into place, so readers never see a partial entry. Reading an entry
+ * updates its modification time, and when the entries exceed the size
+ * limit, the least recently used ones are deleted. Entries that cannot be
+ * read, e.g. because another process deleted them, are treated as missing.
+ */
+public final class SolutionCache {
+
+    /**
+     * The directory of the cache used by default.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of("solution-cache");
+
+    /**
+     * The size limit of the cache used by default, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    /**
+     * A solution read from the cache.
+     *
+     * @param moves the moves of an optimal solution from the start cell, empty if there is none
+     * @param length the number of moves of the optimal solution, or {@link DistanceOracle#UNREACHABLE}
+     * @param oracle the distance oracle of the maze
+     */
+    public record Entry(List<Direction> moves, int length, DistanceOracle oracle) {
+    }
+
+    private static final int MAGIC = 0x43534252;
+    private static final int VERSION = 1;
+    private static final int DIGEST_SIZE = 32;
+    private static final int HEADER_SIZE = 8 * Integer.BYTES + DIGEST_SIZE;
+    private static final String EXTENSION = ".sol";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong estimatedBytes = new AtomicLong(-1);
+
+    /**
+     * Opens a cache, creating its directory if necessary.
+     *
+     * @param directory the directory of the cache
+     * @param maxBytes the size limit of the cache in bytes
+     * @throws IOException if the directory cannot be created
+     * @throws IllegalArgumentException if the size limit is not positive
+     */
+    public SolutionCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The size limit must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Computes the key of a maze.
+     *
+     * @param maze the maze
+     * @return the hexadecimal SHA-256 hash of the maze
+     */
+    public static String key(Maze maze) {
+        return HexFormat.of().formatHex(digest(maze));
+    }
+
+    private static byte[] digest(Maze maze) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        var board = maze.getBoard();
+        var buffer = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(board.getRows()).putInt(board.getCols()).putInt(maze.getStart()).putInt(maze.getGoal());
+        for (var side : List.of(Direction.UP, Direction.RIGHT)) {
+            for (long word : board.wallBits(side)) {
+                if (!buffer.hasRemaining()) {
+                    digest.update(buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(word);
+            }
+        }
+        digest.update(buffer.flip());
+        return digest.digest();
+    }
+
+    /**
+     * Looks up the solution of a maze. On a hit, the oracle read is also
+     * stored in the maze, see {@link Maze#getDistanceOracle()}.
+     *
+     * @param maze the maze
+     * @return the entry of the maze, or an empty {@code Optional} if there is none
+     */
+    public Optional<Entry> get(Maze maze) {
+        byte[] digest = digest(maze);
+        var file = file(digest);
+        try {
+            var entry = read(file, maze, digest);
+            if (entry.isPresent()) {
+                maze.setDistanceOracle(entry.get().oracle());
+                touch(file);
+            } else {
+                Files.deleteIfExists(file);
+            }
+            return entry;
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Decides whether the entry of a maze can be stored in the cache. An
+     * entry has to fit in a single memory mapping and within the size limit
+     * of the cache, and the maze needs a slide table to compute its oracle.
+     *
+     * @param maze the maze
+     * @return whether the maze is small enough for the cache
+     */
+    public boolean fits(Maze maze) {
+        int cells = maze.getBoard().getCellCount();
+        long size = entrySize(Math.min(cells, Short.MAX_VALUE), cells);
+        return cells <= SlideTable.MAX_CELLS && size <= Math.min(Integer.MAX_VALUE, maxBytes);
+    }
+
+    /**
+     * Returns the solution of a maze from the cache, or computes it with the
+     * distance oracle of the maze and stores it in the cache.
+     *
+     * @param maze the maze
+     * @return the entry of the maze
+     * @throws IOException if the entry cannot be written
+     * @throws IllegalArgumentException if the maze is too large for the cache, see {@link #fits(Maze)}
+     */
+    public Entry getOrCompute(Maze maze) throws IOException {
+        if (!fits(maze)) {
+            throw new IllegalArgumentException("The maze is too large for the cache");
+        }
+        var cached = get(maze);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        var oracle = maze.getDistanceOracle();
+        var entry = new Entry(oracle.path(maze.getBoard(), maze.getStart()), oracle.distance(maze.getStart()),
+                oracle);
+        put(maze, entry);
+        return entry;
+    }
+
+    /**
+     * Stores the solution of a maze, then evicts the least recently used
+     * entries if the cache is over its size limit.
+     *
+     * @param maze the maze
+     * @param entry the solution of the maze
+     * @throws IOException if the entry cannot be written
+     * @throws IllegalArgumentException if the maze is too large for the cache, see {@link #fits(Maze)}
+     */
+    public void put(Maze maze, Entry entry) throws IOException {
+        if (!fits(maze)) {
+            throw new IllegalArgumentException("The maze is too large for the cache");
+        }
+        byte[] digest = digest(maze);
+        var temp = Files.createTempFile(directory, HexFormat.of().formatHex(digest), ".tmp");
+        try {
+            write(temp, maze, digest, entry);
+            try {
+                Files.move(temp, file(digest), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file(digest), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        long size = entrySize(entry.moves().size(), maze.getBoard().getCellCount());
+        long estimate = estimatedBytes.get();
+        if (estimate < 0 || estimatedBytes.addAndGet(size) > maxBytes) {
+            estimatedBytes.set(evict());
+        }
+    }
+
+    private Path file(byte[] digest) {
+        return directory.resolve(HexFormat.of().formatHex(digest) + EXTENSION);
+    }
+
+    private static Optional<Entry> read(Path file, Maze maze, byte[] digest) throws IOException {
+        var board = maze.getBoard();
+        int cells = board.getCellCount();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return Optional.empty();
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] storedDigest = new byte[DIGEST_SIZE];
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != board.getRows()
+                    || buffer.getInt() != board.getCols() || buffer.getInt() != maze.getStart()
+                    || buffer.getInt() != maze.getGoal()) {
+                return Optional.empty();
+            }
+            int length = buffer.getInt();
+            buffer.getInt();
+            buffer.get(storedDigest);
+            int moveCount = Math.max(length, 0);
+            if (!Arrays.equals(digest, storedDigest) || size != entrySize(moveCount, cells)) {
+                return Optional.empty();
+            }
+            var moves = new ArrayList<Direction>(moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                int move = buffer.get();
+                if (move < 0 || move >= Direction.values().length) {
+                    return Optional.empty();
+                }
+                moves.add(Direction.fromOrdinal(move));
+            }
+            buffer.position(HEADER_SIZE + align(moveCount));
+            short[] distances = new short[cells];
+            buffer.asShortBuffer().get(distances);
+            buffer.position(buffer.position() + 2 * cells);
+            byte[] firstMoves = new byte[cells];
+            buffer.get(firstMoves);
+            var oracle = new DistanceOracle(maze.getGoal(), board.getVersion(), distances, firstMoves);
+            return Optional.of(new Entry(List.copyOf(moves), length, oracle));
+        }
+    }
+
+    private static void write(Path file, Maze maze, byte[] digest, Entry entry) throws IOException {
+        var board = maze.getBoard();
+        int cells = board.getCellCount();
+        int moveCount = entry.moves().size();
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + align(moveCount)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(board.getRows()).putInt(board.getCols())
+                .putInt(maze.getStart()).putInt(maze.getGoal()).putInt(entry.length()).putInt(0).put(digest);
+        for (var move : entry.moves()) {
+            buffer.put((byte) move.ordinal());
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, entrySize(moveCount, cells));
+            var tables = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            tables.put(buffer.clear());
+            tables.asShortBuffer().put(entry.oracle().distances());
+            tables.position(tables.position() + 2 * cells);
+            tables.put(entry.oracle().firstMoves());
+            mapped.force();
+        }
+    }
+
+    private static long entrySize(int moveCount, int cells) {
+        return HEADER_SIZE + align(moveCount) + 3L * cells;
+    }
+
+    private static int align(int moveCount) {
+        return (moveCount + 1) & ~1;
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // the entry was evicted in the meantime
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits in its
+     * size limit. Since listing the directory is expensive, it is done on
+     * the first write only, and then again when the total size written since,
+     * which does not include the entries of other processes, exceeds the limit.
+     *
+     * @return the total size of the remaining entries
+     */
+    private long evict() throws IOException {
+        record CachedFile(Path path, long size, FileTime lastModified) {
+        }
+        var files = new ArrayList<CachedFile>();
+        long total = 0;
+        try (var stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (var path : stream) {
+                try {
+                    var file = new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path));
+                    files.add(file);
+                    total += file.size();
+                } catch (NoSuchFileException e) {
+                    // evicted by another process
+                }
+            }
+        }
+        if (total <= maxBytes) {
+            return total;
+        }
+        files.sort(Comparator.comparing(CachedFile::lastModified));
+        for (var file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            Files.deleteIfExists(file.path());
+            total -= file.size();
+        }
+        return total;
+    }
+}
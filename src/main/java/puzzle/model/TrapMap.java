@@ -0,0 +1,173 @@
+package puzzle.model;
+
+import java.util.Arrays;
+
+/**
+ * The cells of a maze from which the goal cannot be reached, found with the
+ * strongly connected components of the graph of the rolls.
+ * <p>
+ * The vertices of the graph are the cells and its edges the legal moves of
+ * the {@link SlideTable}. The components are computed with an iterative
+ * version of Tarjan's algorithm on primitive arrays, in time linear in the
+ * number of cells. Tarjan's algorithm completes every component after all
+ * the components it leads to, so whether a component leads to the goal is
+ * decided from its own edges as soon as it is completed. A ball on a trap
+ * cell is stuck: no sequence of moves brings it to the goal. The map is
+ * immutable and can be shared between threads. Use
+ * {@link Maze#getTrapMap()} to get the map of a maze, which is computed on
+ * the first call only.
+ */
+public final class TrapMap {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int goal;
+    private final long version;
+    private final int[] components;
+    private final long[] reachesGoal;
+    private final int componentCount;
+    private final int trapCount;
+
+    /**
+     * Computes the map of the goal cell on the current walls of the board.
+     *
+     * @param board the board
+     * @param goal the index of the goal cell
+     */
+    public TrapMap(Board board, int goal) {
+        this.goal = goal;
+        version = board.getVersion();
+        var table = board.getSlideTable();
+        int cells = board.getCellCount();
+        components = new int[cells];
+        Arrays.fill(components, -1);
+        reachesGoal = new long[(cells + 63) >>> 6];
+        int[] order = new int[cells];
+        int[] low = new int[cells];
+        int[] stack = new int[cells];
+        int[] path = new int[cells];
+        byte[] nextMove = new byte[cells];
+        int visited = 0;
+        int stackSize = 0;
+        int count = 0;
+        for (int root = 0; root < cells; root++) {
+            if (order[root] != 0) {
+                continue;
+            }
+            order[root] = low[root] = ++visited;
+            stack[stackSize++] = root;
+            int depth = 0;
+            path[0] = root;
+            while (depth >= 0) {
+                int cell = path[depth];
+                if (nextMove[cell] < DIRECTIONS.length) {
+                    int next = table.destination(cell, DIRECTIONS[nextMove[cell]++]);
+                    if (next == cell) {
+                        continue;
+                    }
+                    if (order[next] == 0) {
+                        order[next] = low[next] = ++visited;
+                        stack[stackSize++] = next;
+                        path[++depth] = next;
+                    } else if (components[next] < 0) {
+                        low[cell] = Math.min(low[cell], order[next]);
+                    }
+                    continue;
+                }
+                if (low[cell] == order[cell]) {
+                    int first = stackSize;
+                    do {
+                        components[stack[--first]] = count;
+                    } while (stack[first] != cell);
+                    if (leadsToGoal(table, stack, first, stackSize, count)) {
+                        reachesGoal[count >>> 6] |= 1L << count;
+                    }
+                    stackSize = first;
+                    count++;
+                }
+                if (--depth >= 0) {
+                    int parent = path[depth];
+                    low[parent] = Math.min(low[parent], low[cell]);
+                }
+            }
+        }
+        componentCount = count;
+        int traps = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (isTrap(cell)) {
+                traps++;
+            }
+        }
+        trapCount = traps;
+    }
+
+    /**
+     * Decides whether a component just completed contains the goal or has a
+     * move into a completed component that leads to the goal.
+     */
+    private boolean leadsToGoal(SlideTable table, int[] stack, int from, int to, int component) {
+        for (int i = from; i < to; i++) {
+            int cell = stack[i];
+            if (cell == goal) {
+                return true;
+            }
+            for (Direction direction : DIRECTIONS) {
+                int other = components[table.destination(cell, direction)];
+                if (other != component && (reachesGoal[other >>> 6] & (1L << other)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the index of the goal cell}
+     */
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * {@return the version of the board the map was computed from}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@return the number of strongly connected components of the graph of the rolls}
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the strongly connected component of a cell. Two cells are in
+     * the same component if and only if the ball can roll from each of them
+     * to the other.
+     *
+     * @param cell the index of the cell
+     * @return the index of the component, between {@code 0} and the number of components
+     */
+    public int component(int cell) {
+        return components[cell];
+    }
+
+    /**
+     * {@return whether the goal cannot be reached from the cell}
+     *
+     * @param cell the index of the cell
+     */
+    public boolean isTrap(int cell) {
+        int component = components[cell];
+        return (reachesGoal[component >>> 6] & (1L << component)) == 0;
+    }
+
+    /**
+     * {@return the number of cells the goal cannot be reached from}
+     */
+    public int getTrapCount() {
+        return trapCount;
+    }
+}
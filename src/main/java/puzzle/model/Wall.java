@@ -0,0 +1,9 @@
+package puzzle.model;
+
+/**
+ * Represents the types of walls on the board.
+ */
+public enum Wall {
+    VERTICAL,
+    HORIZONTAL
+}
@@ -0,0 +1,144 @@
+package puzzle.model;
+
+/**
+ * An immutable snapshot of the walls of a {@link Board}.
+ * <p>
+ * Only the walls above and on the right of the cells are stored, as two
+ * bitsets, since every other wall is the opposite side of one of these. The
+ * index answers wall queries in constant time and iterates over the walls
+ * of a rectangular region by scanning the bitsets word by word, without
+ * creating any collection. Use {@link Board#getWallIndex()} to get an
+ * up-to-date index.
+ */
+public final class WallIndex {
+
+    /**
+     * Receives the walls visited by {@link #forEach(int, int, int, int, WallVisitor)}.
+     */
+    @FunctionalInterface
+    public interface WallVisitor {
+
+        /**
+         * Visits a wall. Horizontal walls are above the cell specified,
+         * vertical walls are on the right of the cell specified.
+         *
+         * @param row the row of the cell
+         * @param col the column of the cell
+         * @param wall the type of the wall
+         */
+        void visit(int row, int col, Wall wall);
+    }
+
+    private final int rows;
+    private final int cols;
+    private final long version;
+    private final long[] horizontal;
+    private final long[] vertical;
+
+    /**
+     * Builds the index from the current walls of the board.
+     *
+     * @param board the board
+     */
+    public WallIndex(Board board) {
+        rows = board.getRows();
+        cols = board.getCols();
+        version = board.getVersion();
+        horizontal = board.wallBits(Direction.UP).clone();
+        vertical = board.wallBits(Direction.RIGHT).clone();
+    }
+
+    /**
+     * {@return the version of the board the index was built from}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@return the number of walls}
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < horizontal.length; i++) {
+            size += Long.bitCount(horizontal[i]) + Long.bitCount(vertical[i]);
+        }
+        return size;
+    }
+
+    /**
+     * Returns whether there is a wall on the specified side of the cell.
+     * The edges of the board are not considered as walls.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param side the side of the cell
+     * @return {@code true} if there is a wall, {@code false} otherwise
+     */
+    public boolean hasWall(int row, int col, Direction side) {
+        int cell = row * cols + col;
+        return switch (side) {
+            case UP -> isSet(horizontal, cell);
+            case RIGHT -> isSet(vertical, cell);
+            case DOWN -> row < rows - 1 && isSet(horizontal, cell + cols);
+            case LEFT -> col > 0 && isSet(vertical, cell - 1);
+        };
+    }
+
+    /**
+     * Visits all walls of the board.
+     *
+     * @param visitor the visitor receiving the walls
+     */
+    public void forEach(WallVisitor visitor) {
+        forEach(0, 0, rows, cols, visitor);
+    }
+
+    /**
+     * Visits the walls attached to the cells of a rectangular region, row by
+     * row. For each cell, the horizontal wall above it and the vertical wall
+     * on its right are visited.
+     *
+     * @param fromRow the first row of the region (inclusive)
+     * @param fromCol the first column of the region (inclusive)
+     * @param toRow the last row of the region (exclusive)
+     * @param toCol the last column of the region (exclusive)
+     * @param visitor the visitor receiving the walls
+     */
+    public void forEach(int fromRow, int fromCol, int toRow, int toCol, WallVisitor visitor) {
+        fromRow = Math.max(fromRow, 0);
+        fromCol = Math.max(fromCol, 0);
+        toRow = Math.min(toRow, rows);
+        toCol = Math.min(toCol, cols);
+        if (fromCol >= toCol) {
+            return;
+        }
+        for (int row = fromRow; row < toRow; row++) {
+            int from = row * cols + fromCol;
+            int to = row * cols + toCol;
+            visitRange(horizontal, from, to, row, Wall.HORIZONTAL, visitor);
+            visitRange(vertical, from, to, row, Wall.VERTICAL, visitor);
+        }
+    }
+
+    private void visitRange(long[] bits, int from, int to, int row, Wall wall, WallVisitor visitor) {
+        int rowStart = row * cols;
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = bits[word];
+            if (word == from >>> 6) {
+                mask &= -1L << from;
+            }
+            if (word == (to - 1) >>> 6) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            for (; mask != 0; mask &= mask - 1) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(mask);
+                visitor.visit(row, cell - rowStart, wall);
+            }
+        }
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -1,7 +1,5 @@
 package puzzle.model;
 
-import java.util.Objects;
-
 /**
  * Represents the position of a wall on the puzzle board.
  * Each wall has a specific row and column position, and a type
@@ -10,7 +8,7 @@ import java.util.Objects;
 public class WallPosition {
     private final int row;
     private final int col;
-    private final PuzzleState.Wall wall;
+    private final Wall wall;
 
     /**
      * Constructs a {@code WallPosition} object with the specified row, column, and wall type.
@@ -19,7 +17,7 @@ public class WallPosition {
      * @param col  the column position of the wall on the board.
      * @param wall the type of wall (vertical or horizontal).
      */
-    public WallPosition(int row, int col, PuzzleState.Wall wall) {
+    public WallPosition(int row, int col, Wall wall) {
         this.row = row;
         this.col = col;
         this.wall = wall;
@@ -48,7 +46,7 @@ public class WallPosition {
      *
      * @return the type of the wall
      */
-    public PuzzleState.Wall getWall() {
+    public Wall getWall() {
         return wall;
     }
 
@@ -64,6 +62,6 @@ public class WallPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col, wall);
+        return (31 * row + col) * 2 + wall.ordinal();
     }
 }
@@ -0,0 +1,90 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.TrapMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A* search over the cell indices of a maze using {@link RollingHeuristic}.
+ * <p>
+ * The open list is a heap of {@code long} keys packing the estimated total
+ * cost above the cell index, the closed list is a bitset. Since the
+ * heuristic is consistent, a cell never has to be reopened and the first
+ * solution found is optimal. The number of expanded cells is reported in
+ * the {@link Solution}, so that it can be compared to breadth-first search.
+ * When the {@link TrapMap} of the maze has already been computed, see
+ * {@link Maze#cachedTrapMap()}, its cells are never added to the open list,
+ * and the search gives up at once when the start cell is a trap. The map is
+ * not computed for the search, since it costs a pass over all the cells.
+ */
+public class AStarSearch implements MazeSolver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Override
+    public Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var board = maze.getBoard();
+        var table = board.getSlideTable();
+        int goal = maze.getGoal();
+        var traps = maze.cachedTrapMap().orElse(null);
+        if (traps != null && traps.isTrap(start)) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.empty();
+        }
+        int cells = table.getCellCount();
+        int[] costs = new int[cells];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        int[] parents = new int[cells];
+        byte[] moves = new byte[cells];
+        long[] closed = new long[(cells + 63) >>> 6];
+        long visitedBytes = 9L * cells + 8L * closed.length;
+        var open = new LongMinHeap(1024);
+        costs[start] = 0;
+        open.add(key(RollingHeuristic.estimate(board, start, goal), start));
+        long expanded = 0;
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+        while (!open.isEmpty()) {
+            int cell = (int) open.poll();
+            if ((closed[cell >>> 6] & (1L << cell)) != 0) {
+                continue;
+            }
+            if (cell == goal) {
+                recorder.finish(generated, expanded, duplicates, peakFrontier, visitedBytes);
+                return Optional.of(new Solution(CellBreadthFirstSearch.path(start, goal, parents, moves), expanded));
+            }
+            closed[cell >>> 6] |= 1L << cell;
+            expanded++;
+            int cost = costs[cell] + 1;
+            for (Direction direction : DIRECTIONS) {
+                int next = table.destination(cell, direction);
+                if (next == cell || traps != null && traps.isTrap(next)) {
+                    continue;
+                }
+                generated++;
+                if (cost < costs[next]) {
+                    costs[next] = cost;
+                    parents[next] = cell;
+                    moves[next] = (byte) direction.ordinal();
+                    open.add(key(cost + RollingHeuristic.estimate(board, next, goal), next));
+                    peakFrontier = Math.max(peakFrontier, open.size());
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+        recorder.finish(generated, expanded, duplicates, peakFrontier, visitedBytes);
+        return Optional.empty();
+    }
+
+    private static long key(int estimate, int cell) {
+        return (long) estimate << 32 | cell;
+    }
+}
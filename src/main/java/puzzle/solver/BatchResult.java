@@ -0,0 +1,54 @@
+package puzzle.solver;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import puzzle.model.Direction;
+
+import java.util.List;
+
+/**
+ * The result of solving one maze of a batch with {@link BatchSolver}.
+ *
+ * @param id the identifier of the maze, the name of its file without extension
+ * @param solved whether a solution was found
+ * @param length the number of moves of the solution, or {@code -1} if there is none
+ * @param moves the moves of the solution, empty if there is none
+ * @param nodesExpanded the number of cells expanded by the solver, {@code 0} if there is no solution
+ *                      and no statistics were requested
+ * @param millis the wall-clock time of the search in milliseconds, without loading the maze
+ * @param error the reason the maze could not be solved, or {@code null} if it was read successfully
+ * @param stats the statistics of the search, or {@code null} if they were not requested
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(String id, boolean solved, int length, List<Direction> moves, long nodesExpanded,
+                          double millis, String error, SolveStats stats) {
+
+    /**
+     * Creates the result of a maze that was searched.
+     *
+     * @param id the identifier of the maze
+     * @param solution the solution found, or {@code null} if there is none
+     * @param nanos the wall-clock time of the search in nanoseconds
+     * @param stats the statistics of the search, or {@code null}
+     * @return the result
+     */
+    static BatchResult of(String id, Solution solution, long nanos, SolveStats stats) {
+        double millis = nanos / 1_000_000.0;
+        if (solution == null) {
+            return new BatchResult(id, false, -1, List.of(), stats != null ? stats.nodesExpanded() : 0, millis,
+                    null, stats);
+        }
+        return new BatchResult(id, true, solution.length(), solution.moves(), solution.nodesExpanded(), millis,
+                null, stats);
+    }
+
+    /**
+     * Creates the result of a maze that could not be read.
+     *
+     * @param id the identifier of the maze
+     * @param error the reason the maze could not be read
+     * @return the result
+     */
+    static BatchResult failed(String id, String error) {
+        return new BatchResult(id, false, -1, List.of(), 0, 0, error, null);
+    }
+}
@@ -0,0 +1,169 @@
+package puzzle.solver;
+
+import puzzle.model.MazeIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Solves many maze files concurrently, one virtual thread per maze.
+ * <p>
+ * The memory used by the mazes being solved is bounded by a budget of
+ * cells: before a maze is loaded, its number of cells is read from the
+ * header of its file and reserved from the budget, and it is given back
+ * once the maze is solved. A maze larger than the whole budget is solved
+ * alone. The results are reported as soon as they are available, so they
+ * are not in the order of the files.
+ */
+public class BatchSolver {
+
+    /**
+     * The default number of cells that can be loaded at the same time.
+     */
+    public static final long DEFAULT_MAX_CELLS = 1L << 26;
+
+    private static final int CELLS_PER_PERMIT = 1024;
+
+    private static final String MAZE_EXTENSION = ".maze";
+
+    private final MazeSolver solver;
+    private final int permits;
+    private final boolean collectStats;
+
+    /**
+     * Creates a batch solver that does not collect statistics.
+     *
+     * @param solver the solver used for every maze
+     * @param maxCells the number of cells that can be loaded at the same time
+     * @throws IllegalArgumentException if {@code maxCells} is not positive
+     */
+    public BatchSolver(MazeSolver solver, long maxCells) {
+        this(solver, maxCells, false);
+    }
+
+    /**
+     * Creates a batch solver.
+     *
+     * @param solver the solver used for every maze
+     * @param maxCells the number of cells that can be loaded at the same time
+     * @param collectStats whether the {@link SolveStats} of every maze are included in the results
+     * @throws IllegalArgumentException if {@code maxCells} is not positive
+     */
+    public BatchSolver(MazeSolver solver, long maxCells, boolean collectStats) {
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("The cell budget must be positive");
+        }
+        this.solver = solver;
+        permits = (int) Math.min(Integer.MAX_VALUE, ceilDiv(maxCells, CELLS_PER_PERMIT));
+        this.collectStats = collectStats;
+    }
+
+    /**
+     * Lists the maze files of a level pack. If the path is a directory, its
+     * files with the {@code .maze} extension are returned in the order of
+     * their names. Otherwise the path is a manifest listing one maze file per
+     * line, relative to the directory of the manifest. Blank lines and lines
+     * starting with {@code #} are ignored.
+     *
+     * @param source the directory or the manifest
+     * @return the list of the maze files
+     * @throws IOException if an I/O error occurs
+     */
+    public static List<Path> listMazes(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            try (var files = Files.list(source)) {
+                return files.filter(file -> file.getFileName().toString().endsWith(MAZE_EXTENSION))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .toList();
+            }
+        }
+        var directory = source.toAbsolutePath().getParent();
+        var mazes = new ArrayList<Path>();
+        for (String line : Files.readAllLines(source)) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                mazes.add(directory.resolve(line));
+            }
+        }
+        return mazes;
+    }
+
+    /**
+     * Solves the mazes and passes the results to the consumer, which is
+     * called by one thread at a time. This method returns when all mazes
+     * have been solved.
+     *
+     * @param files the maze files
+     * @param results the consumer of the results
+     * @throws InterruptedException if the thread is interrupted while waiting for memory
+     */
+    public void solveAll(List<Path> files, Consumer<BatchResult> results) throws InterruptedException {
+        var budget = new Semaphore(permits, true);
+        Consumer<BatchResult> report = result -> {
+            synchronized (results) {
+                results.accept(result);
+            }
+        };
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var file : files) {
+                long cells;
+                try {
+                    cells = MazeIO.readCellCount(file);
+                } catch (IOException e) {
+                    report.accept(BatchResult.failed(id(file), e.toString()));
+                    continue;
+                }
+                int reserved = (int) Math.min(permits, ceilDiv(Math.max(cells, 1), CELLS_PER_PERMIT));
+                budget.acquire(reserved);
+                executor.execute(() -> {
+                    try {
+                        report.accept(solve(file));
+                    } finally {
+                        budget.release(reserved);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Loads and solves a single maze.
+     *
+     * @param file the maze file
+     * @return the result
+     */
+    BatchResult solve(Path file) {
+        try {
+            var maze = MazeIO.read(file);
+            var stats = new SolveStats[1];
+            long start = System.nanoTime();
+            var solution = solver.solve(maze, maze.getStart(), collectStats ? result -> stats[0] = result : null);
+            long nanos = System.nanoTime() - start;
+            return BatchResult.of(id(file), solution.orElse(null), nanos, stats[0]);
+        } catch (IOException | RuntimeException e) {
+            return BatchResult.failed(id(file), e.toString());
+        }
+    }
+
+    /**
+     * {@return the identifier of a maze file, its name without extension}
+     *
+     * @param file the maze file
+     */
+    static String id(Path file) {
+        var name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
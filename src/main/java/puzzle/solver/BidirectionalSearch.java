@@ -0,0 +1,199 @@
+package puzzle.solver;
+
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.SlideTable;
+import puzzle.model.TrapMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Bidirectional breadth-first search over the cell indices of a maze.
+ * <p>
+ * The forward search starts from the start cell and follows the moves, the
+ * backward search starts from the goal cell and follows the moves in
+ * reverse: the predecessors of a cell in a direction are the cells of the
+ * straight corridor behind it that roll into it, provided the cell is
+ * blocked in that direction. Each step expands a complete level of the side
+ * with the smaller frontier, and the search stops after the first level
+ * where the two sides meet, taking the shortest path through the meeting
+ * cells of that level. When the {@link TrapMap} of the maze has already
+ * been computed, see {@link Maze#cachedTrapMap()}, the forward search skips
+ * its cells, and the search gives up at once when the start cell is a trap.
+ */
+public class BidirectionalSearch implements MazeSolver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Override
+    public Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var board = maze.getBoard();
+        var table = board.getSlideTable();
+        int goal = maze.getGoal();
+        if (start == goal) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.of(new Solution(List.of(), 0));
+        }
+        var traps = maze.cachedTrapMap().orElse(null);
+        if (traps != null && traps.isTrap(start)) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.empty();
+        }
+        int cells = table.getCellCount();
+        var forward = new Side(cells, start);
+        var backward = new Side(cells, goal);
+        long visitedBytes = 2 * 9L * cells;
+        long expanded = 0;
+        int peakFrontier = 2;
+        int meeting = -1;
+        while (forward.size > 0 && backward.size > 0) {
+            if (forward.size <= backward.size) {
+                expanded += forward.size;
+                meeting = expandForward(table, traps, forward, backward);
+            } else {
+                expanded += backward.size;
+                meeting = expandBackward(board, table, backward, forward);
+            }
+            peakFrontier = Math.max(peakFrontier, forward.size + backward.size);
+            if (meeting >= 0) {
+                recorder.finish(forward.generated + backward.generated, expanded,
+                        forward.duplicates + backward.duplicates, peakFrontier, visitedBytes);
+                return Optional.of(new Solution(path(start, meeting, forward, backward), expanded));
+            }
+        }
+        recorder.finish(forward.generated + backward.generated, expanded,
+                forward.duplicates + backward.duplicates, peakFrontier, visitedBytes);
+        return Optional.empty();
+    }
+
+    /**
+     * Expands the current level of the forward search, skipping the traps
+     * if their map is given.
+     *
+     * @return the best meeting cell found in the level, or {@code -1}
+     */
+    private static int expandForward(SlideTable table, TrapMap traps, Side side, Side other) {
+        int meeting = -1;
+        int best = Integer.MAX_VALUE;
+        int[] current = side.frontier;
+        int size = side.size;
+        side.size = 0;
+        side.frontier = side.next;
+        side.next = current;
+        for (int i = 0; i < size; i++) {
+            int cell = current[i];
+            for (Direction direction : DIRECTIONS) {
+                int next = table.destination(cell, direction);
+                if (next == cell || traps != null && traps.isTrap(next)) {
+                    continue;
+                }
+                side.generated++;
+                if (side.distances[next] >= 0) {
+                    side.duplicates++;
+                    continue;
+                }
+                side.reach(next, cell, direction);
+                if (other.distances[next] >= 0 && side.distances[next] + other.distances[next] < best) {
+                    best = side.distances[next] + other.distances[next];
+                    meeting = next;
+                }
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Expands the current level of the backward search. The link of a cell
+     * reached backwards points to the cell it rolls into, towards the goal.
+     *
+     * @return the best meeting cell found in the level, or {@code -1}
+     */
+    private static int expandBackward(Board board, SlideTable table, Side side, Side other) {
+        int meeting = -1;
+        int best = Integer.MAX_VALUE;
+        int[] current = side.frontier;
+        int size = side.size;
+        side.size = 0;
+        side.frontier = side.next;
+        side.next = current;
+        for (int i = 0; i < size; i++) {
+            int cell = current[i];
+            for (Direction direction : DIRECTIONS) {
+                if (table.destination(cell, direction) != cell) {
+                    // the ball does not stop here when moving in this direction
+                    continue;
+                }
+                var back = direction.opposite();
+                int step = board.step(back);
+                for (int previous = cell; !board.isBlocked(previous, back); ) {
+                    previous += step;
+                    side.generated++;
+                    if (side.distances[previous] >= 0) {
+                        side.duplicates++;
+                        continue;
+                    }
+                    side.reach(previous, cell, direction);
+                    if (other.distances[previous] >= 0 && side.distances[previous] + other.distances[previous] < best) {
+                        best = side.distances[previous] + other.distances[previous];
+                        meeting = previous;
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+
+    private static List<Direction> path(int start, int meeting, Side forward, Side backward) {
+        var path = new ArrayList<>(CellBreadthFirstSearch.path(start, meeting, forward.links, forward.moves));
+        for (int cell = meeting; cell != backward.root; cell = backward.links[cell]) {
+            path.add(Direction.fromOrdinal(backward.moves[cell]));
+        }
+        return path;
+    }
+
+    /**
+     * The search data of one direction of the search.
+     */
+    private static final class Side {
+        final int root;
+        final int[] distances;
+        final int[] links;
+        final byte[] moves;
+        int[] frontier;
+        int[] next;
+        int size;
+        long generated;
+        long duplicates;
+
+        Side(int cells, int root) {
+            this.root = root;
+            distances = new int[cells];
+            Arrays.fill(distances, -1);
+            links = new int[cells];
+            moves = new byte[cells];
+            frontier = new int[16];
+            next = new int[16];
+            distances[root] = 0;
+            frontier[size++] = root;
+        }
+
+        /**
+         * Records a newly reached cell and adds it to the next frontier.
+         */
+        void reach(int cell, int link, Direction move) {
+            distances[cell] = distances[link] + 1;
+            links[cell] = link;
+            moves[cell] = (byte) move.ordinal();
+            if (size == frontier.length) {
+                frontier = Arrays.copyOf(frontier, size * 2);
+            }
+            frontier[size++] = cell;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Breadth-first search over the cell indices of a maze.
+ * <p>
+ * Unlike the generic {@code BreadthFirstSearch}, this solver does not create
+ * any state objects. It uses an {@code int[]} queue, an {@code int[]} array
+ * of parent cells, a {@code byte[]} array of the moves that reached the
+ * cells and a bitset of the visited cells, so its memory use is proportional
+ * to the number of cells. Moves are tried in the order of the
+ * {@link Direction} constants, hence it finds the same solution as the
+ * generic breadth-first search.
+ */
+public class CellBreadthFirstSearch implements MazeSolver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Override
+    public Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var table = maze.getBoard().getSlideTable();
+        int goal = maze.getGoal();
+        if (start == goal) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.of(new Solution(List.of(), 0));
+        }
+        int cells = table.getCellCount();
+        int[] queue = new int[cells];
+        int[] parents = new int[cells];
+        byte[] moves = new byte[cells];
+        long[] visited = new long[(cells + 63) >>> 6];
+        long visitedBytes = 5L * cells + 8L * visited.length;
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start >>> 6] |= 1L << start;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (Direction direction : DIRECTIONS) {
+                int next = table.destination(cell, direction);
+                if (next == cell) {
+                    continue;
+                }
+                generated++;
+                if ((visited[next >>> 6] & (1L << next)) != 0) {
+                    duplicates++;
+                    continue;
+                }
+                visited[next >>> 6] |= 1L << next;
+                parents[next] = cell;
+                moves[next] = (byte) direction.ordinal();
+                if (next == goal) {
+                    recorder.finish(generated, head, duplicates, peakFrontier, visitedBytes);
+                    return Optional.of(new Solution(path(start, goal, parents, moves), head));
+                }
+                queue[tail++] = next;
+                peakFrontier = Math.max(peakFrontier, tail - head);
+            }
+        }
+        recorder.finish(generated, head, duplicates, peakFrontier, visitedBytes);
+        return Optional.empty();
+    }
+
+    /**
+     * Reconstructs the moves leading from the start cell to the cell specified
+     * by following the parent cells backwards.
+     *
+     * @param start the index of the start cell
+     * @param cell the index of the last cell of the path
+     * @param parents the parent cell of each reached cell
+     * @param moves the ordinal of the move that reached each cell
+     * @return the list of the moves
+     */
+    static List<Direction> path(int start, int cell, int[] parents, byte[] moves) {
+        int length = 0;
+        for (int c = cell; c != start; c = parents[c]) {
+            length++;
+        }
+        var path = new Direction[length];
+        for (int c = cell; c != start; c = parents[c]) {
+            path[--length] = Direction.fromOrdinal(moves[c]);
+        }
+        return Arrays.asList(path);
+    }
+}
@@ -0,0 +1,42 @@
+package puzzle.solver;
+
+import java.util.Comparator;
+
+/**
+ * The difficulty profile of a maze computed by {@link DifficultyAnalyzer}.
+ *
+ * @param id the identifier of the maze, the name of its file without extension
+ * @param cells the number of cells of the maze
+ * @param optimalLength the number of moves of the optimal solutions, or {@code -1} if there is none
+ * @param optimalSolutions the number of optimal solutions, {@link Long#MAX_VALUE} if there are at least as many
+ * @param reachableStops the number of cells the ball can stop on, starting from the start cell
+ * @param branchingFactor the average number of legal moves from the cells the ball can stop on
+ * @param deadEndFraction the fraction of the cells the ball can stop on from which the goal cannot be reached
+ * @param error the reason the maze could not be analyzed, or {@code null} if it was read successfully
+ */
+public record DifficultyProfile(String id, int cells, int optimalLength, long optimalSolutions, int reachableStops,
+                                double branchingFactor, double deadEndFraction, String error) {
+
+    /**
+     * Orders the profiles from the hardest to the easiest: by decreasing
+     * optimal length, then by increasing number of optimal solutions, then
+     * by increasing branching factor, then by identifier. Unsolvable mazes
+     * and mazes that could not be analyzed come last.
+     */
+    public static final Comparator<DifficultyProfile> HARDEST_FIRST =
+            Comparator.comparingInt(DifficultyProfile::optimalLength).reversed()
+                    .thenComparingLong(DifficultyProfile::optimalSolutions)
+                    .thenComparingDouble(DifficultyProfile::branchingFactor)
+                    .thenComparing(DifficultyProfile::id);
+
+    /**
+     * Creates the profile of a maze that could not be analyzed.
+     *
+     * @param id the identifier of the maze
+     * @param error the reason the maze could not be analyzed
+     * @return the profile
+     */
+    static DifficultyProfile failed(String id, String error) {
+        return new DifficultyProfile(id, 0, -1, 0, 0, 0, 0, error);
+    }
+}
@@ -0,0 +1,296 @@
+package puzzle.solver;
+
+import puzzle.State;
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Iterative-deepening A* search using {@link RollingHeuristic}, for mazes too
+ * large to keep a visited set.
+ * <p>
+ * Each iteration is a depth-first search that cuts the branches whose
+ * estimated total cost exceeds a bound, which is raised to the smallest
+ * exceeding estimate after every iteration. The moves are computed with
+ * {@link Board#roll(int, Direction)} instead of the slide table, and the only
+ * data kept is the current path, so the memory used is proportional to the
+ * length of the solution. Cells already on the path are skipped. An optional
+ * transposition cache of fixed size remembers the smallest depth each cell
+ * was reached at in the current iteration, to skip cells reached again at a
+ * greater or equal depth; colliding entries simply replace each other.
+ * <p>
+ * The search checks the cancellation condition regularly and throws a
+ * {@link CancellationException} when it holds, by default when the thread
+ * is interrupted. The listener is notified after every iteration. In the
+ * {@link SolveStats}, the peak frontier is the length of the longest path
+ * explored, and the paths and cells skipped count as duplicates.
+ */
+public class IdaStarSearch implements MazeSolver {
+
+    /**
+     * Receives the progress of the search.
+     */
+    @FunctionalInterface
+    public interface IterationListener {
+
+        /**
+         * Called after an iteration that did not find a solution.
+         *
+         * @param bound the bound of the iteration
+         * @param nodesExpanded the number of nodes expanded since the search started
+         */
+        void iterationFinished(int bound, long nodesExpanded);
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final int CANCELLATION_CHECK_INTERVAL = 1 << 12;
+
+    private final int cacheSize;
+    private final BooleanSupplier cancelled;
+    private final IterationListener listener;
+
+    /**
+     * Creates a solver without transposition cache that stops when the thread is interrupted.
+     */
+    public IdaStarSearch() {
+        this(0, () -> Thread.currentThread().isInterrupted(), (bound, nodesExpanded) -> { });
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param cacheSize the number of entries of the transposition cache, rounded
+     *                  up to a power of two, or {@code 0} for no cache
+     * @param cancelled the condition that stops the search
+     * @param listener the listener notified after every iteration
+     * @throws IllegalArgumentException if the cache size is negative or too large
+     */
+    public IdaStarSearch(int cacheSize, BooleanSupplier cancelled, IterationListener listener) {
+        if (cacheSize < 0 || cacheSize > 1 << 30) {
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        this.cancelled = cancelled;
+        this.listener = listener;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws CancellationException if the search was cancelled
+     */
+    @Override
+    public Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var board = maze.getBoard();
+        int goal = maze.getGoal();
+        if (start == goal) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.of(new Solution(List.of(), 0));
+        }
+        var cache = cacheSize > 0 ? new TranspositionCache(cacheSize) : null;
+        long cacheBytes = cache != null ? cache.bytes() : 0;
+        int[] cells = new int[64];
+        byte[] moves = new byte[64];
+        long expanded = 0;
+        long generated = 0;
+        long duplicates = 0;
+        int peakDepth = 0;
+        int bound = RollingHeuristic.estimate(board, start, goal);
+        while (true) {
+            int nextBound = Integer.MAX_VALUE;
+            if (cache != null) {
+                cache.nextIteration();
+            }
+            int depth = 0;
+            cells[0] = start;
+            moves[0] = -1;
+            while (depth >= 0) {
+                int move = ++moves[depth];
+                if (move == DIRECTIONS.length) {
+                    depth--;
+                    continue;
+                }
+                int cell = cells[depth];
+                int next = board.roll(cell, DIRECTIONS[move]);
+                if (next == cell) {
+                    continue;
+                }
+                generated++;
+                int cost = depth + 1;
+                int estimate = cost + RollingHeuristic.estimate(board, next, goal);
+                if (estimate > bound) {
+                    nextBound = Math.min(nextBound, estimate);
+                    continue;
+                }
+                if (isOnPath(cells, depth, next) || cache != null && !cache.offer(next, cost)) {
+                    duplicates++;
+                    continue;
+                }
+                if (next == goal) {
+                    recorder.finish(generated, expanded, duplicates, Math.max(peakDepth, cost),
+                            5L * cells.length + cacheBytes);
+                    return Optional.of(new Solution(toMoves(moves, cost), expanded));
+                }
+                if (++expanded % CANCELLATION_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                    throw new CancellationException("The search was cancelled");
+                }
+                depth = cost;
+                peakDepth = Math.max(peakDepth, depth);
+                if (depth == cells.length) {
+                    cells = Arrays.copyOf(cells, depth * 2);
+                    moves = Arrays.copyOf(moves, depth * 2);
+                }
+                cells[depth] = next;
+                moves[depth] = -1;
+            }
+            if (nextBound == Integer.MAX_VALUE) {
+                recorder.finish(generated, expanded, duplicates, peakDepth, 5L * cells.length + cacheBytes);
+                return Optional.empty();
+            }
+            listener.iterationFinished(bound, expanded);
+            bound = nextBound;
+        }
+    }
+
+    /**
+     * Solves a puzzle given by its state, keeping a clone of the state for
+     * every move of the current path. The transposition cache is not used,
+     * states already on the path are recognized by {@code equals}.
+     *
+     * @param initial the initial state, which is not modified
+     * @param heuristic an admissible estimate of the number of moves from a state to a solved state
+     * @param <S> the type of the states
+     * @return the moves of an optimal solution, or an empty {@code Optional} if there is none
+     * @throws CancellationException if the search was cancelled
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends State<Direction>> Optional<List<Direction>> solve(S initial,
+                                                                       ToIntFunction<? super S> heuristic) {
+        if (initial.isSolved()) {
+            return Optional.of(List.of());
+        }
+        var states = new ArrayList<S>();
+        byte[] moves = new byte[64];
+        long expanded = 0;
+        int bound = heuristic.applyAsInt(initial);
+        while (true) {
+            int nextBound = Integer.MAX_VALUE;
+            states.clear();
+            states.add(initial);
+            int depth = 0;
+            moves[0] = -1;
+            while (depth >= 0) {
+                int move = ++moves[depth];
+                if (move == DIRECTIONS.length) {
+                    states.remove(depth--);
+                    continue;
+                }
+                var state = states.get(depth);
+                if (!state.isLegalMove(DIRECTIONS[move])) {
+                    continue;
+                }
+                var next = (S) state.clone();
+                next.makeMove(DIRECTIONS[move]);
+                int cost = depth + 1;
+                int estimate = cost + heuristic.applyAsInt(next);
+                if (estimate > bound) {
+                    nextBound = Math.min(nextBound, estimate);
+                    continue;
+                }
+                if (states.contains(next)) {
+                    continue;
+                }
+                if (next.isSolved()) {
+                    return Optional.of(toMoves(moves, cost));
+                }
+                if (++expanded % CANCELLATION_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                    throw new CancellationException("The search was cancelled");
+                }
+                depth = cost;
+                if (depth == moves.length) {
+                    moves = Arrays.copyOf(moves, depth * 2);
+                }
+                states.add(next);
+                moves[depth] = -1;
+            }
+            if (nextBound == Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            listener.iterationFinished(bound, expanded);
+            bound = nextBound;
+        }
+    }
+
+    private static boolean isOnPath(int[] cells, int depth, int cell) {
+        for (int i = 0; i <= depth; i++) {
+            if (cells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Direction> toMoves(byte[] moves, int length) {
+        var path = new ArrayList<Direction>(length);
+        for (int i = 0; i < length; i++) {
+            path.add(DIRECTIONS[moves[i]]);
+        }
+        return path;
+    }
+
+    /**
+     * Direct-mapped cache of the smallest depth the cells were reached at in
+     * the current iteration. The entries of previous iterations are ignored.
+     */
+    private static final class TranspositionCache {
+        private final int[] cells;
+        private final int[] depths;
+        private final int[] iterations;
+        private final int mask;
+        private int iteration;
+
+        TranspositionCache(int minSize) {
+            int size = Integer.bitCount(minSize) == 1 ? minSize : Integer.highestOneBit(minSize) << 1;
+            cells = new int[size];
+            depths = new int[size];
+            iterations = new int[size];
+            mask = size - 1;
+        }
+
+        long bytes() {
+            return 12L * cells.length;
+        }
+
+        void nextIteration() {
+            iteration++;
+        }
+
+        /**
+         * Records that the cell was reached at the depth specified.
+         *
+         * @return {@code false} if the cell was already reached at a smaller or equal depth
+         */
+        boolean offer(int cell, int depth) {
+            int hash = cell * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            if (iterations[slot] == iteration && cells[slot] == cell && depths[slot] <= depth) {
+                return false;
+            }
+            cells[slot] = cell;
+            depths[slot] = depth;
+            iterations[slot] = iteration;
+            return true;
+        }
+    }
+}
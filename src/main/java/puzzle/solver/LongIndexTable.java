@@ -0,0 +1,113 @@
+package puzzle.solver;
+
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * An open-addressing set of primitive {@code long} keys that numbers the
+ * keys in the order they are added.
+ * <p>
+ * The keys are stored densely in an array indexed by their number, and the
+ * hash table itself only holds the numbers plus one, {@code 0} marking an
+ * empty slot, in an {@code int[]} probed linearly. Besides saving the memory
+ * of the entry objects of a {@code HashSet<Long>}, this lets callers keep
+ * their own data of the keys in parallel arrays, and use the numbers as a
+ * queue in insertion order. The table is doubled when it becomes three
+ * quarters full, the hash function is only called again on growth.
+ */
+final class LongIndexTable {
+
+    /**
+     * The maximum number of keys.
+     */
+    static final int MAX_SIZE = 3 << 28;
+
+    private final LongUnaryOperator hash;
+    private long[] keys;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param initialCapacity the number of keys the table can hold without growing
+     * @param hash the hash function of the keys, whose low bits must be well distributed
+     */
+    LongIndexTable(int initialCapacity, LongUnaryOperator hash) {
+        this.hash = hash;
+        int capacity = 16;
+        while ((capacity >>> 2) * 3 < Math.min(initialCapacity, MAX_SIZE)) {
+            capacity <<= 1;
+        }
+        slots = new int[capacity];
+        mask = capacity - 1;
+        keys = new long[Math.max(16, Math.min(initialCapacity, MAX_SIZE))];
+    }
+
+    /**
+     * {@return the number of keys}
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the key with the number specified.
+     *
+     * @param index the number of the key
+     * @return the key
+     */
+    long key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * {@return the number of bytes of the arrays of the table}
+     */
+    long bytes() {
+        return 8L * keys.length + 4L * slots.length;
+    }
+
+    /**
+     * Adds a key if it is not in the table yet.
+     *
+     * @param key the key
+     * @param keyHash the hash of the key
+     * @return the number of the key if it was added, or {@code -1} if it was already in the table
+     * @throws IllegalStateException if the table is full
+     */
+    int add(long key, long keyHash) {
+        int slot = (int) keyHash & mask;
+        for (int entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            if (keys[entry - 1] == key) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("Too many keys");
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, (int) Math.min(MAX_SIZE, 2L * size));
+        }
+        keys[size] = key;
+        slots[slot] = ++size;
+        if (size > (slots.length >>> 2) * 3) {
+            grow();
+        }
+        return size - 1;
+    }
+
+    private void grow() {
+        slots = new int[slots.length * 2];
+        mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = (int) hash.applyAsLong(keys[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package puzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive {@code long} values that grows as needed.
+ */
+final class LongMinHeap {
+
+    private long[] heap;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param initialCapacity the initial capacity of the heap
+     */
+    LongMinHeap(int initialCapacity) {
+        heap = new long[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * {@return whether the heap is empty}
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of values in the heap}
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the heap.
+     *
+     * @param value the value to add
+     */
+    void add(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * Removes and returns the smallest value of the heap. The heap must not be empty.
+     *
+     * @return the smallest value
+     */
+    long poll() {
+        long result = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return result;
+    }
+}
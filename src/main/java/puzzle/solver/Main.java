@@ -1,22 +1,225 @@
 package puzzle.solver;
 
 import puzzle.model.Direction;
-import puzzle.model.PuzzleState;
+import puzzle.model.DistanceOracle;
+import puzzle.model.Maze;
+import puzzle.model.MazeIO;
+import puzzle.model.MultiBallState;
+import puzzle.model.SolutionCache;
+
+import util.JacksonHelper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 /**
  * The entry point for the puzzle solver application.
  * <p>
  * This class demonstrates solving a puzzle using a breadth-first search (BFS) algorithm.
+ * The maze is read from the file given as the command line argument, if
+ * there is none, the original maze is solved. Another solver can be chosen
+ * with the {@code --solver=<name>} option, where the name is one of
+ * {@code bfs} (the default), {@code astar}, {@code bidirectional}, {@code parallel} and {@code idastar}.
+ * <p>
+ * With the {@code --batch=<path>} option, every maze of a directory or a
+ * manifest is solved concurrently (see {@link BatchSolver}), and the results
+ * are printed as JSON Lines. The number of cells loaded at the same time can
+ * be limited with the {@code --max-cells=<count>} option. With the
+ * {@code --count} option, the number of optimal solutions is printed after
+ * the solution (see {@link OptimalSolutions}). With the {@code --stats}
+ * option, the {@link SolveStats} of the search are printed as well, or
+ * included in the results of a batch.
+ * <p>
+ * Single mazes are looked up in the {@link SolutionCache} in the
+ * {@code solution-cache} directory first, and solved and stored there on a
+ * miss. The cache is not used when a solver is chosen explicitly, with the
+ * {@code --stats} option, which needs a search, with the {@code --no-cache}
+ * option, or for mazes too large for the cache.
+ * <p>
+ * With the {@code --balls=<cell>,<cell>...} option, the maze is solved with
+ * additional balls on the cells given by their indices, using
+ * {@link MultiBallSearch}. The ball starting on the start cell has to reach
+ * the goal.
+ * <p>
+ * With the {@code --analyze=<path>} option, the {@link DifficultyProfile}
+ * of every maze of a directory or a manifest is computed, and the report is
+ * written to the file given with the {@code --report=<file>} option, or
+ * printed. The oracles found in the solution cache are read from it unless
+ * the {@code --no-cache} option is given, and the oracles computed are
+ * stored in it with the {@code --write-cache} option.
  */
 public class Main {
 
     /**
      * The main method that initiates the puzzle solving process.
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments, optionally the solver to use and the path of a maze file
+     * @throws IOException if the maze file cannot be read
+     * @throws InterruptedException if the batch is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        MazeSolver solver = new CellBreadthFirstSearch();
+        Maze maze = Maze.original();
+        Path batch = null;
+        Path analyze = null;
+        Path report = null;
+        long maxCells = BatchSolver.DEFAULT_MAX_CELLS;
+        boolean count = false;
+        boolean printStats = false;
+        boolean useCache = true;
+        boolean writeCache = false;
+        boolean solverGiven = false;
+        int[] otherBalls = null;
+        for (String arg : args) {
+            if (arg.startsWith("--solver=")) {
+                solver = createSolver(arg.substring("--solver=".length()));
+                solverGiven = true;
+            } else if (arg.startsWith("--batch=")) {
+                batch = Path.of(arg.substring("--batch=".length()));
+            } else if (arg.startsWith("--analyze=")) {
+                analyze = Path.of(arg.substring("--analyze=".length()));
+            } else if (arg.startsWith("--report=")) {
+                report = Path.of(arg.substring("--report=".length()));
+            } else if (arg.equals("--stats")) {
+                printStats = true;
+            } else if (arg.equals("--no-cache")) {
+                useCache = false;
+            } else if (arg.equals("--write-cache")) {
+                writeCache = true;
+            } else if (arg.startsWith("--balls=")) {
+                otherBalls = Arrays.stream(arg.substring("--balls=".length()).split(","))
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+            } else if (arg.equals("--count")) {
+                count = true;
+            } else if (arg.startsWith("--max-cells=")) {
+                maxCells = Long.parseLong(arg.substring("--max-cells=".length()));
+            } else {
+                maze = MazeIO.read(Path.of(arg));
+            }
+        }
+        if (batch != null) {
+            solveBatch(new BatchSolver(solver, maxCells, printStats), batch);
+            return;
+        }
+        if (analyze != null) {
+            var cache = useCache
+                    ? new SolutionCache(SolutionCache.DEFAULT_DIRECTORY, SolutionCache.DEFAULT_MAX_BYTES)
+                    : null;
+            var profiles = new DifficultyAnalyzer(cache, writeCache).analyzeAll(BatchSolver.listMazes(analyze));
+            if (report == null) {
+                DifficultyAnalyzer.writeReport(profiles,
+                        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+                return;
+            }
+            try (var out = Files.newBufferedWriter(report)) {
+                DifficultyAnalyzer.writeReport(profiles, out);
+            }
+            return;
+        }
+        var stats = new SolveStats[1];
+        SolutionCache cache;
+        Optional<List<Direction>> solution;
+        if (otherBalls != null) {
+            var initial = new MultiBallState(maze,
+                    IntStream.concat(IntStream.of(maze.getStart()), IntStream.of(otherBalls)).toArray());
+            solution = new MultiBallSearch().solve(initial, printStats ? result -> stats[0] = result : null)
+                    .map(Solution::moves);
+            count = false;
+        } else if (useCache && !printStats && !solverGiven && (cache = openCache(maze)) != null) {
+            var entry = cache.getOrCompute(maze);
+            solution = entry.length() == DistanceOracle.UNREACHABLE ? Optional.empty() : Optional.of(entry.moves());
+        } else {
+            solution = solver.solve(maze, maze.getStart(), printStats ? result -> stats[0] = result : null)
+                    .map(Solution::moves);
+        }
+        if (solution.isEmpty()) {
+            System.out.println("No solution found");
+        } else {
+            var moves = solution.get();
+            for (int i = 0; i < moves.size(); i++) {
+                System.out.printf("%d. %s%n", i + 1, moves.get(i));
+            }
+            if (count) {
+                var solutions = new OptimalSolutions(maze);
+                System.out.printf("Optimal solutions: %s%d%n", solutions.isCountSaturated() ? "at least " : "",
+                        solutions.count());
+            }
+        }
+        if (printStats) {
+            printStats(stats[0]);
+        }
+    }
+
+    /**
+     * Opens the default solution cache if the maze fits in it, or tells the
+     * user that it does not.
+     *
+     * @return the cache, or {@code null} if the maze is too large for it
+     */
+    private static SolutionCache openCache(Maze maze) throws IOException {
+        var cache = new SolutionCache(SolutionCache.DEFAULT_DIRECTORY, SolutionCache.DEFAULT_MAX_BYTES);
+        if (cache.fits(maze)) {
+            return cache;
+        }
+        System.err.println("The maze is too large for the solution cache, solving it without the cache");
+        return null;
+    }
+
+    private static void printStats(SolveStats stats) {
+        System.out.printf("Nodes generated: %d%n", stats.nodesGenerated());
+        System.out.printf("Nodes expanded: %d%n", stats.nodesExpanded());
+        System.out.printf("Duplicates: %d%n", stats.duplicates());
+        System.out.printf("Peak frontier: %d%n", stats.peakFrontier());
+        System.out.printf("Peak visited memory: %d bytes%n", stats.peakVisitedBytes());
+        System.out.printf("Wall time: %.3f ms%n", stats.wallNanos() / 1e6);
+        System.out.printf("CPU time: %.3f ms%n", stats.cpuNanos() / 1e6);
+    }
+
+    /**
+     * Solves the mazes of a directory or a manifest and prints the results
+     * as JSON Lines.
+     */
+    private static void solveBatch(BatchSolver solver, Path source) throws IOException, InterruptedException {
+        var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            solver.solveAll(BatchSolver.listMazes(source), result -> {
+                try {
+                    JacksonHelper.writeLine(out, result);
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Creates the solver with the name specified.
+     *
+     * @param name the name of the solver
+     * @return the solver
+     * @throws IllegalArgumentException if there is no solver with the name
      */
-    public static void main(String[] args) {
-        BreadthFirstSearch<Direction> bfs = new BreadthFirstSearch<>();
-        bfs.solveAndPrintSolution(new PuzzleState());
+    static MazeSolver createSolver(String name) {
+        return switch (name) {
+            case "bfs" -> new CellBreadthFirstSearch();
+            case "astar" -> new AStarSearch();
+            case "bidirectional" -> new BidirectionalSearch();
+            case "parallel" -> new ParallelBreadthFirstSearch();
+            case "idastar" -> new IdaStarSearch();
+            default -> throw new IllegalArgumentException("Unknown solver: " + name);
+        };
     }
 }
@@ -0,0 +1,49 @@
+package puzzle.solver;
+
+import puzzle.model.Maze;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Interface of the solvers working directly on the cells of a {@link Maze}.
+ * <p>
+ * Every solver can report the {@link SolveStats} of a search. When no
+ * consumer of the statistics is given, the clocks are not read, so the
+ * statistics cost next to nothing.
+ */
+public interface MazeSolver {
+
+    /**
+     * Solves the maze starting from the cell specified, and passes the
+     * statistics of the search to the consumer, whether or not a solution
+     * was found.
+     *
+     * @param maze the maze to solve
+     * @param start the index of the cell the ball starts from
+     * @param stats the consumer of the statistics, or {@code null} if they are not needed
+     * @return the solution, or an empty {@code Optional} if the goal cannot be reached
+     */
+    Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats);
+
+    /**
+     * Solves the maze starting from the cell specified.
+     *
+     * @param maze the maze to solve
+     * @param start the index of the cell the ball starts from
+     * @return the solution, or an empty {@code Optional} if the goal cannot be reached
+     */
+    default Optional<Solution> solve(Maze maze, int start) {
+        return solve(maze, start, null);
+    }
+
+    /**
+     * Solves the maze starting from its start cell.
+     *
+     * @param maze the maze to solve
+     * @return the solution, or an empty {@code Optional} if the goal cannot be reached
+     */
+    default Optional<Solution> solve(Maze maze) {
+        return solve(maze, maze.getStart());
+    }
+}
@@ -0,0 +1,114 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.MultiBallRules;
+import puzzle.model.MultiBallState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Breadth-first search over the packed states of the puzzle with several
+ * balls, see {@link MultiBallRules}.
+ * <p>
+ * The visited states are kept in a {@link LongIndexTable} hashed with the
+ * Zobrist hash of the states, which numbers them in the order they are
+ * reached, so the numbers double as the queue of the search. The parent
+ * number and the move of every state are stored in parallel {@code int[]}
+ * and {@code byte[]} arrays, which makes 13 bytes per state plus the hash
+ * table, about 2 GB for 10<sup>8</sup> states. No object is created per
+ * state.
+ */
+public class MultiBallSearch {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int initialCapacity;
+
+    /**
+     * Creates a solver whose tables start small and grow as needed.
+     */
+    public MultiBallSearch() {
+        this(1 << 16);
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param initialCapacity the number of states the tables can hold before they need to grow
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public MultiBallSearch(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Solves the puzzle from the state specified.
+     *
+     * @param initial the initial state
+     * @return the solution, or an empty {@code Optional} if the first ball cannot reach the goal
+     */
+    public Optional<Solution> solve(MultiBallState initial) {
+        return solve(initial, null);
+    }
+
+    /**
+     * Solves the puzzle from the state specified, and passes the statistics
+     * of the search to the consumer, whether or not a solution was found.
+     *
+     * @param initial the initial state
+     * @param stats the consumer of the statistics, or {@code null} if they are not needed
+     * @return the solution, or an empty {@code Optional} if the first ball cannot reach the goal
+     * @throws IllegalStateException if there are too many states
+     */
+    public Optional<Solution> solve(MultiBallState initial, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var rules = initial.getRules();
+        long start = initial.getPacked();
+        if (rules.isSolved(start)) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.of(new Solution(List.of(), 0));
+        }
+        var visited = new LongIndexTable(initialCapacity, rules::hash);
+        int[] parents = new int[Math.max(16, initialCapacity)];
+        byte[] moves = new byte[parents.length];
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+        visited.add(start, rules.hash(start));
+        for (int head = 0; head < visited.size(); head++) {
+            long state = visited.key(head);
+            for (Direction direction : DIRECTIONS) {
+                long next = rules.tilt(state, direction);
+                if (next == state) {
+                    continue;
+                }
+                generated++;
+                int index = visited.add(next, rules.hash(next));
+                if (index < 0) {
+                    duplicates++;
+                    continue;
+                }
+                if (index == parents.length) {
+                    parents = Arrays.copyOf(parents, (int) Math.min(LongIndexTable.MAX_SIZE, 2L * index));
+                    moves = Arrays.copyOf(moves, parents.length);
+                }
+                parents[index] = head;
+                moves[index] = (byte) direction.ordinal();
+                if (rules.isSolved(next)) {
+                    recorder.finish(generated, head + 1, duplicates, peakFrontier,
+                            visited.bytes() + 5L * parents.length);
+                    return Optional.of(new Solution(CellBreadthFirstSearch.path(0, index, parents, moves), head + 1));
+                }
+                peakFrontier = Math.max(peakFrontier, visited.size() - head - 1);
+            }
+        }
+        recorder.finish(generated, visited.size(), duplicates, peakFrontier, visited.bytes() + 5L * parents.length);
+        return Optional.empty();
+    }
+}
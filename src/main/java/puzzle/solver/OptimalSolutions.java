@@ -0,0 +1,237 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.DistanceOracle;
+import puzzle.model.Maze;
+import puzzle.model.SlideTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * All optimal solutions of a maze from a start cell.
+ * <p>
+ * The distances of the {@link DistanceOracle} of the maze split the cells
+ * into the layers of a breadth-first search, and a move belongs to an
+ * optimal solution if and only if it leads to the next layer towards the
+ * goal. These moves form a directed acyclic graph, the optimal solutions
+ * are its paths from the start cell to the goal. The number of paths is
+ * counted once for every cell reachable from the start in the graph, in
+ * time linear in the number of these cells, using saturating arithmetic.
+ * The paths themselves are enumerated lazily, one at a time, in the order
+ * of the directions, so even mazes with astronomically many optimal
+ * solutions can be inspected.
+ */
+public final class OptimalSolutions implements Iterable<List<Direction>> {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final DistanceOracle oracle;
+    private final SlideTable table;
+    private final int start;
+    private final long count;
+
+    /**
+     * Computes the optimal solutions of the maze from the cell specified.
+     *
+     * @param maze the maze
+     * @param start the index of the cell the ball starts from
+     * @throws IllegalArgumentException if the optimal solutions are longer than
+     *         the distances the oracle can represent
+     */
+    public OptimalSolutions(Maze maze, int start) {
+        oracle = maze.getDistanceOracle();
+        table = maze.getBoard().getSlideTable();
+        this.start = start;
+        if (oracle.distance(start) == Short.MAX_VALUE) {
+            throw new IllegalArgumentException("The solutions are too long to be enumerated");
+        }
+        count = oracle.isSolvable(start) ? countPaths() : 0;
+    }
+
+    /**
+     * Computes the optimal solutions of the maze from its start cell.
+     *
+     * @param maze the maze
+     */
+    public OptimalSolutions(Maze maze) {
+        this(maze, maze.getStart());
+    }
+
+    /**
+     * Counts the paths of the graph reachable from the start cell, processing
+     * the cells in the reverse order they were reached.
+     */
+    private long countPaths() {
+        int[] order = new int[16];
+        int size = 0;
+        long[] counts = new long[table.getCellCount()];
+        boolean[] reached = new boolean[table.getCellCount()];
+        reached[start] = true;
+        order[size++] = start;
+        for (int i = 0; i < size; i++) {
+            int cell = order[i];
+            for (Direction direction : DIRECTIONS) {
+                int next = nextOnPath(cell, direction);
+                if (next >= 0 && !reached[next]) {
+                    reached[next] = true;
+                    if (size == order.length) {
+                        order = Arrays.copyOf(order, size * 2);
+                    }
+                    order[size++] = next;
+                }
+            }
+        }
+        counts[oracle.getGoal()] = 1;
+        for (int i = size - 1; i >= 0; i--) {
+            int cell = order[i];
+            long sum = counts[cell];
+            for (Direction direction : DIRECTIONS) {
+                int next = nextOnPath(cell, direction);
+                if (next >= 0) {
+                    sum = saturatedAdd(sum, counts[next]);
+                }
+            }
+            counts[cell] = sum;
+        }
+        return counts[start];
+    }
+
+    /**
+     * Returns the cell the move leads to if it belongs to an optimal solution.
+     *
+     * @return the index of the cell, or {@code -1}
+     */
+    private int nextOnPath(int cell, Direction direction) {
+        int distance = oracle.distance(cell);
+        if (distance <= 0) {
+            return -1;
+        }
+        int next = table.destination(cell, direction);
+        return next != cell && oracle.distance(next) == distance - 1 ? next : -1;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * {@return the number of moves of the optimal solutions, or {@code -1} if the goal cannot be reached}
+     */
+    public int length() {
+        return oracle.distance(start);
+    }
+
+    /**
+     * Returns the number of optimal solutions. Numbers greater than
+     * {@link Long#MAX_VALUE} are reported as {@link Long#MAX_VALUE}.
+     *
+     * @return the number of optimal solutions, {@code 0} if the goal cannot be reached
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * {@return whether the number of optimal solutions is too large to be represented exactly}
+     */
+    public boolean isCountSaturated() {
+        return count == Long.MAX_VALUE;
+    }
+
+    /**
+     * {@return whether there is exactly one optimal solution}
+     */
+    public boolean isUnique() {
+        return count == 1;
+    }
+
+    /**
+     * Returns an iterator over the optimal solutions. Each solution is
+     * created when it is requested, only the current one is kept.
+     *
+     * @return an iterator over the lists of moves of the optimal solutions
+     */
+    @Override
+    public Iterator<List<Direction>> iterator() {
+        return new PathIterator();
+    }
+
+    /**
+     * Depth-first enumeration of the paths of the graph, advancing the last
+     * move that has an alternative, like an odometer.
+     */
+    private final class PathIterator implements Iterator<List<Direction>> {
+        private final int[] cells;
+        private final int[] moves;
+        private boolean hasNext;
+
+        PathIterator() {
+            int length = Math.max(length(), 0);
+            cells = new int[length + 1];
+            moves = new int[length];
+            cells[0] = start;
+            hasNext = count > 0;
+            if (hasNext) {
+                descend(0);
+            }
+        }
+
+        /**
+         * Takes the first move of the graph from every cell after the depth specified.
+         */
+        private void descend(int depth) {
+            for (int i = depth; i < moves.length; i++) {
+                moves[i] = -1;
+                advance(i);
+            }
+        }
+
+        /**
+         * Replaces the move at the depth specified with the next move of the graph.
+         *
+         * @return {@code true} if there is such a move
+         */
+        private boolean advance(int depth) {
+            for (int move = moves[depth] + 1; move < DIRECTIONS.length; move++) {
+                int next = nextOnPath(cells[depth], DIRECTIONS[move]);
+                if (next >= 0) {
+                    moves[depth] = move;
+                    cells[depth + 1] = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public List<Direction> next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            var path = new ArrayList<Direction>(moves.length);
+            for (int move : moves) {
+                path.add(DIRECTIONS[move]);
+            }
+            int depth = moves.length - 1;
+            while (depth >= 0 && !advance(depth)) {
+                depth--;
+            }
+            if (depth < 0) {
+                hasNext = false;
+            } else {
+                descend(depth + 1);
+            }
+            return path;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.SlideTable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Level-synchronous parallel breadth-first search over the cell indices of
+ * a maze, for mazes with millions of cells.
+ * <p>
+ * Each level of the search is split into chunks of the frontier that are
+ * expanded in parallel on a {@link ForkJoinPool}. Workers claim the cells
+ * they reach in an atomic bitset, so every cell gets exactly one parent,
+ * written by the worker that claimed it, and collect the claimed cells in
+ * their own buffer. The buffers are concatenated into the next frontier.
+ * The solution found is optimal, but when there are several optimal
+ * solutions, which one is returned depends on the scheduling of the workers.
+ */
+public class ParallelBreadthFirstSearch implements MazeSolver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a solver running on the common fork/join pool.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver running on the pool specified.
+     *
+     * @param pool the pool the levels are expanded on
+     */
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Optional<Solution> solve(Maze maze, int start, Consumer<? super SolveStats> stats) {
+        var recorder = StatsRecorder.start(stats);
+        var table = maze.getBoard().getSlideTable();
+        int goal = maze.getGoal();
+        if (start == goal) {
+            recorder.finish(0, 0, 0, 0, 0);
+            return Optional.of(new Solution(List.of(), 0));
+        }
+        int cells = table.getCellCount();
+        var search = new Search(table, cells, recorder);
+        long visitedBytes = 5L * cells + 8L * ((cells + 63) >>> 6);
+        search.claim(start);
+        int[] frontier = {start};
+        long expanded = 0;
+        int peakFrontier = 1;
+        while (frontier.length > 0) {
+            expanded += frontier.length;
+            frontier = search.expand(frontier);
+            peakFrontier = Math.max(peakFrontier, frontier.length);
+            if (search.isClaimed(goal)) {
+                recorder.finish(search.generated, expanded, search.duplicates, peakFrontier, visitedBytes);
+                return Optional.of(new Solution(
+                        CellBreadthFirstSearch.path(start, goal, search.parents, search.moves), expanded));
+            }
+        }
+        recorder.finish(search.generated, expanded, search.duplicates, peakFrontier, visitedBytes);
+        return Optional.empty();
+    }
+
+    /**
+     * The shared data of a search.
+     */
+    private final class Search {
+        final SlideTable table;
+        final AtomicLongArray visited;
+        final int[] parents;
+        final byte[] moves;
+        final StatsRecorder recorder;
+        int[][] buffers = new int[0][];
+        int[] counts = new int[0];
+        long[] chunkGenerated = new long[0];
+        long generated;
+        long duplicates;
+
+        Search(SlideTable table, int cells, StatsRecorder recorder) {
+            this.table = table;
+            this.recorder = recorder;
+            visited = new AtomicLongArray((cells + 63) >>> 6);
+            parents = new int[cells];
+            moves = new byte[cells];
+        }
+
+        boolean isClaimed(int cell) {
+            return (visited.get(cell >>> 6) & (1L << cell)) != 0;
+        }
+
+        /**
+         * Atomically marks the cell as visited.
+         *
+         * @return {@code true} if the cell was not visited before
+         */
+        boolean claim(int cell) {
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            long old = visited.get(word);
+            while ((old & bit) == 0) {
+                long witness = visited.compareAndExchange(word, old, old | bit);
+                if (witness == old) {
+                    return true;
+                }
+                old = witness;
+            }
+            return false;
+        }
+
+        /**
+         * Expands a level and returns the next frontier.
+         */
+        int[] expand(int[] frontier) {
+            int chunks = (frontier.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            if (buffers.length < chunks) {
+                buffers = Arrays.copyOf(buffers, chunks);
+                counts = new int[chunks];
+                chunkGenerated = new long[chunks];
+            }
+            if (chunks == 1) {
+                expandChunk(frontier, 0);
+            } else {
+                pool.invoke(new ExpandTask(this, frontier, 0, chunks));
+            }
+            int size = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                size += counts[chunk];
+                generated += chunkGenerated[chunk];
+                duplicates += chunkGenerated[chunk] - counts[chunk];
+            }
+            int[] next = new int[size];
+            int offset = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                System.arraycopy(buffers[chunk], 0, next, offset, counts[chunk]);
+                offset += counts[chunk];
+            }
+            return next;
+        }
+
+        void expandChunk(int[] frontier, int chunk) {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, frontier.length);
+            int[] buffer = buffers[chunk];
+            if (buffer == null) {
+                buffer = new int[CHUNK_SIZE * DIRECTIONS.length];
+                buffers[chunk] = buffer;
+            }
+            int count = 0;
+            long chunkMoves = 0;
+            for (int i = from; i < to; i++) {
+                int cell = frontier[i];
+                for (Direction direction : DIRECTIONS) {
+                    int next = table.destination(cell, direction);
+                    if (next == cell) {
+                        continue;
+                    }
+                    chunkMoves++;
+                    if (!isClaimed(next) && claim(next)) {
+                        parents[next] = cell;
+                        moves[next] = (byte) direction.ordinal();
+                        buffer[count++] = next;
+                    }
+                }
+            }
+            counts[chunk] = count;
+            chunkGenerated[chunk] = chunkMoves;
+        }
+    }
+
+    /**
+     * Expands a range of chunks of a frontier, splitting the range in halves.
+     */
+    private static final class ExpandTask extends RecursiveAction {
+        private final transient Search search;
+        private final int[] frontier;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ExpandTask(Search search, int[] frontier, int fromChunk, int toChunk) {
+            this.search = search;
+            this.frontier = frontier;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                if (search.recorder.isEnabled() && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+                    long cpuTime = StatsRecorder.cpuTime();
+                    search.expandChunk(frontier, fromChunk);
+                    search.recorder.addWorkerCpuTime(StatsRecorder.cpuTime() - cpuTime);
+                } else {
+                    search.expandChunk(frontier, fromChunk);
+                }
+                return;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ExpandTask(search, frontier, fromChunk, middle),
+                    new ExpandTask(search, frontier, middle, toChunk));
+        }
+    }
+}
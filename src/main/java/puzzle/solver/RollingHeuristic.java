@@ -0,0 +1,32 @@
+package puzzle.solver;
+
+import puzzle.model.Board;
+
+/**
+ * Admissible and consistent estimate of the number of moves needed to
+ * reach the goal cell when the ball rolls until it hits a wall.
+ * <p>
+ * A single move never changes both the row and the column of the ball, so
+ * at least two moves are needed if the goal shares neither with the cell,
+ * at least one move if the cell is not the goal, and none on the goal.
+ */
+final class RollingHeuristic {
+
+    private RollingHeuristic() {
+    }
+
+    /**
+     * Returns the lower bound of the number of moves from the cell to the goal.
+     *
+     * @param board the board
+     * @param cell the index of the cell
+     * @param goal the index of the goal cell
+     * @return 0, 1 or 2
+     */
+    static int estimate(Board board, int cell, int goal) {
+        if (cell == goal) {
+            return 0;
+        }
+        return board.row(cell) == board.row(goal) || board.col(cell) == board.col(goal) ? 1 : 2;
+    }
+}
@@ -0,0 +1,21 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+
+import java.util.List;
+
+/**
+ * Represents a solution of a maze found by a {@link MazeSolver}.
+ *
+ * @param moves the moves leading from the start cell to the goal cell
+ * @param nodesExpanded the number of cells whose moves were examined by the solver
+ */
+public record Solution(List<Direction> moves, long nodesExpanded) {
+
+    /**
+     * {@return the number of moves of the solution}
+     */
+    public int length() {
+        return moves.size();
+    }
+}
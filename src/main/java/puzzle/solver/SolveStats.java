@@ -0,0 +1,23 @@
+package puzzle.solver;
+
+/**
+ * Statistics of a single run of a {@link MazeSolver}.
+ * <p>
+ * A node is generated when a move leads from an expanded cell to another
+ * cell, and it is a duplicate if the solver discards it because the cell
+ * was already reached. The memory of the visited set is the size of the
+ * arrays the solver allocates to remember the reached cells and how they
+ * were reached, the frontier is not included.
+ *
+ * @param nodesGenerated the number of nodes generated
+ * @param nodesExpanded the number of nodes expanded
+ * @param duplicates the number of generated nodes that were discarded as already reached
+ * @param peakFrontier the largest number of nodes waiting to be expanded at the same time
+ * @param peakVisitedBytes the largest memory used by the visited set, in bytes
+ * @param wallNanos the elapsed time of the search, in nanoseconds
+ * @param cpuNanos the CPU time used by the threads of the search, in nanoseconds, or {@code -1}
+ *                 if the virtual machine does not measure it
+ */
+public record SolveStats(long nodesGenerated, long nodesExpanded, long duplicates, long peakFrontier,
+                         long peakVisitedBytes, long wallNanos, long cpuNanos) {
+}
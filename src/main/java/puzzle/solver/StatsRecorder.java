@@ -0,0 +1,76 @@
+package puzzle.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Measures the time of a search and passes its {@link SolveStats} to a
+ * consumer. The counters are kept by the solvers in local variables, so
+ * when no consumer is given, the only cost of the statistics is a call to
+ * {@link #finish} on the shared disabled recorder, which reads no clock.
+ */
+final class StatsRecorder {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final StatsRecorder DISABLED = new StatsRecorder(null);
+
+    private final Consumer<? super SolveStats> consumer;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final AtomicLong workerCpuNanos = new AtomicLong();
+
+    private StatsRecorder(Consumer<? super SolveStats> consumer) {
+        this.consumer = consumer;
+        startNanos = consumer == null ? 0 : System.nanoTime();
+        startCpuNanos = consumer == null ? 0 : cpuTime();
+    }
+
+    /**
+     * Starts measuring a search.
+     *
+     * @param consumer the consumer of the statistics, or {@code null} if they are not needed
+     * @return the recorder
+     */
+    static StatsRecorder start(Consumer<? super SolveStats> consumer) {
+        return consumer == null ? DISABLED : new StatsRecorder(consumer);
+    }
+
+    /**
+     * {@return whether the statistics are collected}
+     */
+    boolean isEnabled() {
+        return consumer != null;
+    }
+
+    /**
+     * {@return the CPU time of the current thread in nanoseconds, or {@code -1} if it is not measured}
+     */
+    static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Adds the CPU time used by a worker thread of the search.
+     *
+     * @param nanos the CPU time in nanoseconds
+     */
+    void addWorkerCpuTime(long nanos) {
+        workerCpuNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Finishes the measurement and passes the statistics to the consumer.
+     */
+    void finish(long generated, long expanded, long duplicates, long peakFrontier, long peakVisitedBytes) {
+        if (consumer == null) {
+            return;
+        }
+        long wallNanos = System.nanoTime() - startNanos;
+        long cpuNanos = startCpuNanos < 0 ? -1 : cpuTime() - startCpuNanos + workerCpuNanos.get();
+        consumer.accept(new SolveStats(generated, expanded, duplicates, peakFrontier, peakVisitedBytes,
+                wallNanos, cpuNanos));
+    }
+}
@@ -2,15 +2,18 @@ package util;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.List;
 
 /**
- * Helper class for reading and writing a list of objects to JSON.
+ * Helper class for reading and writing a list of objects to JSON, and for
+ * writing objects as JSON Lines.
  */
 public class JacksonHelper {
 
@@ -19,6 +22,9 @@ public class JacksonHelper {
             .enable(SerializationFeature.INDENT_OUTPUT)
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 
+    private static final ObjectWriter LINE_WRITER = MAPPER.writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+
     /**
      * Deserializes a list of objects from JSON.
      *
@@ -44,4 +50,30 @@ public class JacksonHelper {
     public static <T> void writeList(OutputStream out, List<T> list) throws IOException {
         MAPPER.writeValue(out, list);
     }
+
+    /**
+     * Deserializes an object from a single line of JSON.
+     *
+     * @param line the line of JSON
+     * @param type the class of the object
+     * @return the object deserialized from JSON
+     * @param <T> the type of the object
+     * @throws IOException if the line is not valid JSON of the class
+     */
+    public static <T> T readLine(String line, Class<T> type) throws IOException {
+        return MAPPER.readValue(line, type);
+    }
+
+    /**
+     * Serializes an object to a single line of JSON, followed by a line
+     * separator, as in the JSON Lines format. The writer is not closed.
+     *
+     * @param out the writer to which the line will be written
+     * @param value the object to be serialized
+     * @throws IOException if any I/O error occurs
+     */
+    public static void writeLine(Writer out, Object value) throws IOException {
+        out.write(LINE_WRITER.writeValueAsString(value));
+        out.write('\n');
+    }
 }
@@ -0,0 +1,110 @@
+package gameresult;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingResultManagerTest {
+    @TempDir
+    Path tempDir;
+
+    private static GameResult result(int i) {
+        return new GameResult("player" + i, i, Duration.ofSeconds(i));
+    }
+
+    @Test
+    void getAll_servedFromMemory() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new CachingResultManager(new JsonLinesResultManager(file), false);
+        manager.add(result(2));
+        manager.add(result(1));
+        try (var files = Files.list(tempDir)) {
+            for (var path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        assertEquals(List.of(result(2), result(1)), manager.getAll());
+        assertEquals(List.of(result(1)), manager.getBest(1));
+    }
+
+    @Test
+    void getAll_snapshotsAreImmutable() throws IOException {
+        var manager = new CachingResultManager(new JsonLinesResultManager(tempDir.resolve("results.jsonl")), false);
+        var before = manager.add(result(1));
+        manager.add(result(2));
+        assertEquals(List.of(result(1)), before);
+        assertThrows(UnsupportedOperationException.class, () -> before.add(result(3)));
+    }
+
+    @Test
+    void refresh_readsResultsOfOtherWriters() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new CachingResultManager(new JsonLinesResultManager(file, 200), false);
+        var other = new JsonLinesResultManager(file, 200);
+        var expected = new ArrayList<GameResult>();
+        for (int i = 0; i < 20; i++) {
+            other.add(result(i));
+            expected.add(result(i));
+            manager.refresh();
+            assertEquals(expected, manager.getAll());
+        }
+        other.compact();
+        manager.refresh();
+        assertEquals(expected, manager.getAll());
+    }
+
+    @Test
+    void getAll_neverMissingDuringReload() throws IOException, InterruptedException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new CachingResultManager(new JsonLinesResultManager(file, 1), false);
+        var other = new JsonLinesResultManager(file, 1);
+        var failure = new AtomicReference<Throwable>();
+        var done = new AtomicBoolean();
+        var reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    assertNotNull(manager.getAll());
+                    assertNotNull(manager.getBest(50));
+                    assertNotNull(manager.getBest(1));
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                // Every add seals the active segment, so every refresh reads the whole log again.
+                other.add(result(i));
+                manager.refresh();
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(200, manager.getAll().size());
+    }
+
+    @Test
+    void of_watchesTheLog() throws IOException, InterruptedException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = CachingResultManager.of(file);
+        assertSame(manager, CachingResultManager.of(tempDir.resolve(".").resolve("results.jsonl")));
+        new JsonLinesResultManager(file).add(result(1));
+        for (int i = 0; i < 200 && manager.getAll().isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of(result(1)), manager.getAll());
+    }
+}
@@ -0,0 +1,129 @@
+package gameresult;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesResultManagerTest {
+    @TempDir
+    Path tempDir;
+
+    private static GameResult result(int i) {
+        return new GameResult("player" + i, i, Duration.ofSeconds(i));
+    }
+
+    @Test
+    void add_appendsOneLine() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new JsonLinesResultManager(file);
+        manager.add(result(1));
+        var all = manager.add(result(2));
+        assertEquals(2, Files.readAllLines(file).size());
+        assertEquals(List.of(result(1), result(2)), all);
+        assertEquals(List.of(result(1), result(2)), manager.getAll());
+    }
+
+    @Test
+    void getAll_skipsInvalidLines() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new JsonLinesResultManager(file);
+        manager.add(result(1));
+        Files.writeString(file, "{\"playerName\":\"cut", java.nio.file.StandardOpenOption.APPEND);
+        Files.writeString(file, "\n{}\n", java.nio.file.StandardOpenOption.APPEND);
+        manager.add(result(2));
+        assertEquals(List.of(result(1), result(2)), manager.getAll());
+    }
+
+    @Test
+    void compact_foldsSealedSegments() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new JsonLinesResultManager(file, 200);
+        var expected = new ArrayList<GameResult>();
+        for (int i = 0; i < 50; i++) {
+            manager.add(result(i));
+            expected.add(result(i));
+        }
+        assertEquals(expected, manager.getAll());
+        manager.compact();
+        assertEquals(expected, manager.getAll());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("results.jsonl.base."))
+                    .count());
+        }
+        manager.add(result(50));
+        expected.add(result(50));
+        assertEquals(expected, new JsonLinesResultManager(file, 200).getAll());
+    }
+
+    @Test
+    void constructor_migratesJsonArray() throws IOException {
+        var file = tempDir.resolve("gameresult.json");
+        new JsonResultManager(file).add(result(1));
+        new JsonResultManager(file).add(result(2));
+        var manager = new JsonLinesResultManager(file);
+        assertEquals(2, Files.readAllLines(file).size());
+        assertEquals(List.of(result(1), result(2)), manager.getAll());
+        manager.add(result(3));
+        assertEquals(List.of(result(1), result(2), result(3)), manager.getAll());
+    }
+
+    @Test
+    void getBest_readsLeaderboardBesideLog() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new JsonLinesResultManager(file, 200);
+        for (int i = 0; i < 30; i++) {
+            manager.add(result(30 - i));
+        }
+        assertTrue(Files.exists(tempDir.resolve("results.jsonl.top")));
+        assertEquals(List.of(result(1), result(2), result(3)), manager.getBest(3));
+        assertEquals(List.of(result(1), result(2), result(3)), new JsonLinesResultManager(file, 200).getBest(3));
+        assertEquals(30, manager.getBest(50).size());
+        Files.delete(tempDir.resolve("results.jsonl.top"));
+        new JsonLinesResultManager(file, 200).add(result(0));
+        assertEquals(List.of(result(0), result(1)), manager.getBest(2));
+    }
+
+    @Test
+    void getBest_replaysResultsMissingFromLeaderboard() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var manager = new JsonLinesResultManager(file, 200);
+        for (int i = 0; i < 10; i++) {
+            manager.add(result(10 + i));
+        }
+        // A process that crashed after appending to the log, before updating the leaderboard.
+        var crashed = new java.io.StringWriter();
+        for (int i = 9; i >= 0; i--) {
+            util.JacksonHelper.writeLine(crashed, result(i));
+        }
+        Files.writeString(file, crashed.toString(), java.nio.file.StandardOpenOption.APPEND);
+        manager.add(result(30));
+        assertEquals(List.of(result(0), result(1), result(2)), manager.getBest(3));
+        assertEquals(List.of(result(0), result(1), result(2)), new JsonLinesResultManager(file, 200).getBest(3));
+    }
+
+    @Test
+    void add_appendsToLeaderboardWithManyPlayers() throws IOException {
+        var file = tempDir.resolve("results.jsonl");
+        var top = tempDir.resolve("results.jsonl.top");
+        var manager = new JsonLinesResultManager(file);
+        manager.add(result(0));
+        int rewrites = 0;
+        for (int i = 1; i < 500; i++) {
+            long lines = Files.readAllLines(top).size();
+            manager.add(result(i));
+            if (Files.readAllLines(top).size() != lines + 1) {
+                rewrites++;
+            }
+        }
+        assertTrue(rewrites < 10, "rewrites: " + rewrites);
+        assertEquals(List.of(result(0), result(1)), new JsonLinesResultManager(file).getBest(2));
+    }
+}
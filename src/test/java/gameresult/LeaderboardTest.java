@@ -0,0 +1,63 @@
+package gameresult;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+    private static GameResult result(String player, int moves, int seconds) {
+        return new GameResult(player, moves, Duration.ofSeconds(seconds));
+    }
+
+    @Test
+    void getBest_matchesSortedResults() {
+        var random = new Random(42);
+        var board = new Leaderboard(5);
+        var all = new ArrayList<GameResult>();
+        for (int i = 0; i < 500; i++) {
+            var result = result("player" + random.nextInt(4), random.nextInt(20), random.nextInt(100));
+            all.add(result);
+            board.offer(result);
+        }
+        for (var ordering : Leaderboard.Ordering.values()) {
+            assertEquals(all.stream().sorted(ordering.comparator()).limit(5).toList(), board.getBest(ordering, 10));
+            assertEquals(all.stream().filter(result -> result.getPlayerName().equals("player1"))
+                    .sorted(ordering.comparator()).limit(3).toList(), board.getBest("player1", ordering, 3));
+        }
+        assertEquals(List.of(), board.getBest("nobody", Leaderboard.Ordering.BY_DURATION, 3));
+        assertThrows(IllegalArgumentException.class, () -> board.getBest(Leaderboard.Ordering.BY_MOVES, -1));
+    }
+
+    @Test
+    void getBest_byMovesBreaksTiesByDuration() {
+        var board = new Leaderboard();
+        board.offer(result("a", 5, 30));
+        board.offer(result("b", 5, 10));
+        board.offer(result("c", 7, 1));
+        assertEquals(List.of(result("b", 5, 10), result("a", 5, 30), result("c", 7, 1)),
+                board.getBest(Leaderboard.Ordering.BY_MOVES, 3));
+        assertEquals(List.of(result("c", 7, 1), result("b", 5, 10)),
+                board.getBest(Leaderboard.Ordering.BY_DURATION, 2));
+    }
+
+    @Test
+    void entries_rebuildTheBoard() {
+        var board = new Leaderboard(3);
+        for (int i = 0; i < 30; i++) {
+            board.offer(result("player" + i % 2, i, 30 - i));
+        }
+        var rebuilt = new Leaderboard(3);
+        board.entries().forEach(rebuilt::offer);
+        assertTrue(board.entries().size() < 30);
+        assertEquals(board.entries(), rebuilt.entries());
+        for (var ordering : Leaderboard.Ordering.values()) {
+            assertEquals(board.getBest(ordering, 3), rebuilt.getBest(ordering, 3));
+            assertEquals(board.getBest("player1", ordering, 3), rebuilt.getBest("player1", ordering, 3));
+        }
+    }
+}
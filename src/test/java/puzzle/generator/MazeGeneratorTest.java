@@ -0,0 +1,70 @@
+package puzzle.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.MazeIO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazeGeneratorTest {
+    @TempDir
+    Path tempDir;
+
+    private int distance(Maze maze) {
+        return maze.getDistanceOracle().distance(maze.getStart());
+    }
+
+    private void assertSameWalls(Maze expected, Maze actual) {
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getGoal(), actual.getGoal());
+        for (int cell = 0; cell < expected.getBoard().getCellCount(); cell++) {
+            for (Direction side : Direction.values()) {
+                assertEquals(expected.getBoard().hasWall(cell, side), actual.getBoard().hasWall(cell, side));
+            }
+        }
+    }
+
+    @Test
+    void generate_needsAtLeastMinMoves() {
+        var generator = new MazeGenerator(10, 12, 0.2, 6, 100);
+        for (long seed = 0; seed < 20; seed++) {
+            var maze = generator.generate(seed);
+            assertEquals(10, maze.getBoard().getRows());
+            assertEquals(12, maze.getBoard().getCols());
+            assertTrue(distance(maze) >= 6);
+        }
+    }
+
+    @Test
+    void generate_isDeterministic() {
+        var generator = new MazeGenerator(8, 8, 0.25, 4, 100);
+        var mazes = generator.generate(42, 8);
+        assertEquals(8, mazes.size());
+        for (int i = 0; i < mazes.size(); i++) {
+            assertSameWalls(generator.generate(MazeGenerator.deriveSeed(42, i)), mazes.get(i));
+        }
+    }
+
+    @Test
+    void generate_shouldThrowIllegalStateException() {
+        var generator = new MazeGenerator(2, 2, 0.0, 10, 5);
+        assertThrows(IllegalStateException.class, () -> generator.generate(1));
+    }
+
+    @Test
+    void streamingGenerator_isSolvable() throws IOException {
+        var generator = new StreamingMazeGenerator(40, 50, 0.3, 15);
+        for (long seed = 0; seed < 10; seed++) {
+            var file = tempDir.resolve("large-" + seed + ".maze");
+            generator.write(seed, file);
+            var maze = MazeIO.read(file);
+            int distance = distance(maze);
+            assertTrue(distance > 0 && distance <= 15);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains tests for puzzle.generator package
+ */
+package puzzle.generator;
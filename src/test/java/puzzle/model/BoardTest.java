@@ -0,0 +1,76 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(4, 5);
+        board.addWall(1, 2, Direction.RIGHT);
+        board.addWall(2, 0, Direction.UP);
+    }
+
+    @Test
+    void cell() {
+        assertEquals(0, board.cell(0, 0));
+        assertEquals(7, board.cell(1, 2));
+        assertEquals(1, board.row(7));
+        assertEquals(2, board.col(7));
+    }
+
+    @Test
+    void addWall_setsBothSides() {
+        assertTrue(board.hasWall(board.cell(1, 2), Direction.RIGHT));
+        assertTrue(board.hasWall(board.cell(1, 3), Direction.LEFT));
+        assertTrue(board.hasWall(board.cell(2, 0), Direction.UP));
+        assertTrue(board.hasWall(board.cell(1, 0), Direction.DOWN));
+        assertFalse(board.hasWall(board.cell(1, 2), Direction.LEFT));
+    }
+
+    @Test
+    void removeWall() {
+        board.removeWall(1, 3, Direction.LEFT);
+        assertFalse(board.hasWall(board.cell(1, 2), Direction.RIGHT));
+        assertFalse(board.hasWall(board.cell(1, 3), Direction.LEFT));
+    }
+
+    @Test
+    void isBlocked() {
+        assertTrue(board.isBlocked(board.cell(0, 0), Direction.UP));
+        assertTrue(board.isBlocked(board.cell(0, 0), Direction.LEFT));
+        assertTrue(board.isBlocked(board.cell(3, 4), Direction.DOWN));
+        assertTrue(board.isBlocked(board.cell(3, 4), Direction.RIGHT));
+        assertTrue(board.isBlocked(board.cell(1, 2), Direction.RIGHT));
+        assertFalse(board.isBlocked(board.cell(1, 1), Direction.RIGHT));
+    }
+
+    @Test
+    void roll() {
+        assertEquals(board.cell(1, 2), board.roll(board.cell(1, 0), Direction.RIGHT));
+        assertEquals(board.cell(1, 3), board.roll(board.cell(1, 4), Direction.LEFT));
+        assertEquals(board.cell(2, 0), board.roll(board.cell(3, 0), Direction.UP));
+        assertEquals(board.cell(3, 1), board.roll(board.cell(0, 1), Direction.DOWN));
+        assertEquals(board.cell(0, 0), board.roll(board.cell(0, 0), Direction.UP));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new Board(5, -1));
+    }
+
+    @Test
+    void copy() {
+        board.addWall(1, 1, Direction.RIGHT);
+        var copy = board.copy();
+        assertTrue(copy.hasWall(copy.cell(1, 2), Direction.LEFT));
+        copy.removeWall(1, 1, Direction.RIGHT);
+        assertFalse(copy.hasWall(copy.cell(1, 1), Direction.RIGHT));
+        assertTrue(board.hasWall(board.cell(1, 1), Direction.RIGHT));
+    }
+}
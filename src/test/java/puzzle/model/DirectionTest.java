@@ -19,5 +19,22 @@ class DirectionTest {
         assertThrows(IllegalArgumentException.class, () -> Direction.of(0, 0));
         assertThrows(IllegalArgumentException.class, () -> Direction.of(1, 1));
         assertThrows(IllegalArgumentException.class, () -> Direction.of(-1, -1));
+        assertThrows(IllegalArgumentException.class, () -> Direction.of(2, 0));
+        assertThrows(IllegalArgumentException.class, () -> Direction.of(0, -5));
+    }
+
+    @Test
+    void fromOrdinal() {
+        for (var direction : Direction.values()) {
+            assertSame(direction, Direction.fromOrdinal(direction.ordinal()));
+        }
+    }
+
+    @Test
+    void opposite() {
+        assertSame(Direction.DOWN, Direction.UP.opposite());
+        assertSame(Direction.LEFT, Direction.RIGHT.opposite());
+        assertSame(Direction.UP, Direction.DOWN.opposite());
+        assertSame(Direction.RIGHT, Direction.LEFT.opposite());
     }
 }
\ No newline at end of file
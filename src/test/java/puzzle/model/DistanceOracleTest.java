@@ -0,0 +1,61 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceOracleTest {
+
+    @Test
+    void distance_originalMaze() {
+        var maze = Maze.original();
+        var oracle = maze.getDistanceOracle();
+        assertEquals(18, oracle.distance(maze.getStart()));
+        assertEquals(0, oracle.distance(maze.getGoal()));
+        assertTrue(oracle.isSolvable(maze.getStart()));
+        assertNull(oracle.nextMove(maze.getGoal()));
+    }
+
+    @Test
+    void path_solvesMaze() {
+        var maze = Maze.original();
+        var board = maze.getBoard();
+        var oracle = maze.getDistanceOracle();
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (!oracle.isSolvable(cell)) {
+                continue;
+            }
+            var path = oracle.path(board, cell);
+            assertEquals(oracle.distance(cell), path.size());
+            var engine = new RollingBallEngine(board, cell, maze.getGoal());
+            path.forEach(engine::makeMove);
+            assertTrue(engine.isSolved());
+        }
+    }
+
+    @Test
+    void distance_unreachable() {
+        var board = new Board(1, 3);
+        var maze = new Maze(board, 0, 1);
+        var oracle = maze.getDistanceOracle();
+        assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(0));
+        assertFalse(oracle.isSolvable(2));
+        assertNull(oracle.nextMove(0));
+        assertEquals(List.of(), oracle.path(board, 0));
+    }
+
+    @Test
+    void getDistanceOracle_cachedUntilWallsChange() {
+        var board = new Board(1, 3);
+        var maze = new Maze(board, 0, 1);
+        var oracle = maze.getDistanceOracle();
+        assertSame(oracle, maze.getDistanceOracle());
+        board.addWall(0, 1, Direction.RIGHT);
+        var updated = maze.getDistanceOracle();
+        assertNotSame(oracle, updated);
+        assertEquals(1, updated.distance(0));
+        assertEquals(List.of(Direction.RIGHT), updated.path(board, 0));
+    }
+}
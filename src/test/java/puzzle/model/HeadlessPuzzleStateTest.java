@@ -0,0 +1,58 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessPuzzleStateTest {
+    HeadlessPuzzleState state = new HeadlessPuzzleState(); // the original initial state
+
+    @Test
+    void isSolved() {
+        assertFalse(state.isSolved());
+        var goal = new HeadlessPuzzleState(state.getMaze(), state.getGoal());
+        assertTrue(goal.isSolved());
+    }
+
+    @Test
+    void makeMove_matchesPuzzleState() {
+        var puzzleState = new PuzzleState();
+        for (Direction direction : new Direction[]{Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.DOWN}) {
+            state.makeMove(direction);
+            puzzleState.makeMove(direction);
+            assertEquals(puzzleState.getBallPosition(), state.getBallPosition());
+        }
+    }
+
+    @Test
+    void getLegalMoves() {
+        assertEquals(EnumSet.allOf(Direction.class), state.getLegalMoves());
+        assertEquals(new PuzzleState(new Position(3, 3)).getLegalMoves(),
+                new PuzzleState(new Position(3, 3)).toHeadless().getLegalMoves());
+    }
+
+    @Test
+    void conversion() {
+        var puzzleState = new PuzzleState(new Position(6, 6));
+        var headless = puzzleState.toHeadless();
+        assertEquals(new Position(6, 6), headless.getBallPosition());
+        assertEquals(puzzleState, new PuzzleState(headless));
+    }
+
+    @Test
+    void testClone() {
+        var clone = state.clone();
+        assertEquals(state, clone);
+        assertNotSame(state, clone);
+        assertSame(state.getBoard(), clone.getBoard());
+        clone.makeMove(Direction.RIGHT);
+        assertNotEquals(state, clone);
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("(1, 4)", state.toString());
+    }
+}
@@ -0,0 +1,87 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazeIOTest {
+    @TempDir
+    Path tempDir;
+
+    private void assertSameMaze(Maze expected, Maze actual) {
+        var expectedBoard = expected.getBoard();
+        var actualBoard = actual.getBoard();
+        assertEquals(expectedBoard.getRows(), actualBoard.getRows());
+        assertEquals(expectedBoard.getCols(), actualBoard.getCols());
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getGoal(), actual.getGoal());
+        for (int cell = 0; cell < expectedBoard.getCellCount(); cell++) {
+            for (Direction side : Direction.values()) {
+                assertEquals(expectedBoard.isBlocked(cell, side), actualBoard.isBlocked(cell, side));
+            }
+        }
+    }
+
+    @Test
+    void binary_roundTrip() throws IOException {
+        var file = tempDir.resolve("original.maze");
+        MazeIO.writeBinary(Maze.original(), file);
+        assertSameMaze(Maze.original(), MazeIO.readBinary(file));
+        assertSameMaze(Maze.original(), MazeIO.read(file));
+    }
+
+    @Test
+    void text_roundTrip() throws IOException {
+        var file = tempDir.resolve("original.txt");
+        MazeIO.writeText(Maze.original(), file);
+        assertSameMaze(Maze.original(), MazeIO.readText(file));
+        assertSameMaze(Maze.original(), MazeIO.read(file));
+    }
+
+    @Test
+    void readText() throws IOException {
+        var file = tempDir.resolve("small.txt");
+        Files.writeString(file, """
+                # a small maze
+                MAZE 2 3
+                +-+-+-+
+                |S|   |
+                + +-+ +
+                |    G|
+                +-+-+-+
+                """);
+        var maze = MazeIO.readText(file);
+        var board = maze.getBoard();
+        assertEquals(new Position(0, 0), maze.getStartPosition());
+        assertEquals(new Position(1, 2), maze.getGoalPosition());
+        assertTrue(board.hasWall(board.cell(0, 0), Direction.RIGHT));
+        assertTrue(board.hasWall(board.cell(1, 1), Direction.UP));
+        assertFalse(board.hasWall(board.cell(1, 0), Direction.UP));
+    }
+
+    @Test
+    void readText_shouldThrowIOException() throws IOException {
+        var file = tempDir.resolve("invalid.txt");
+        Files.writeString(file, "MAZE 2 x\n");
+        assertThrows(IOException.class, () -> MazeIO.readText(file));
+        Files.writeString(file, "MAZE 1 1\n+-+\n| |\n+-+\n");
+        assertThrows(IOException.class, () -> MazeIO.readText(file));
+    }
+
+    @Test
+    void readCellCount() throws IOException {
+        var binary = tempDir.resolve("original.maze");
+        MazeIO.writeBinary(Maze.original(), binary);
+        assertEquals(49, MazeIO.readCellCount(binary));
+        var text = tempDir.resolve("original.txt");
+        MazeIO.writeText(Maze.original(), text);
+        assertEquals(49, MazeIO.readCellCount(text));
+        Files.writeString(text, "MAZE 2 x\n");
+        assertThrows(IOException.class, () -> MazeIO.readCellCount(text));
+    }
+}
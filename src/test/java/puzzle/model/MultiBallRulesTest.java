@@ -0,0 +1,71 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiBallRulesTest {
+
+    @Test
+    void pack_sortsOtherBalls() {
+        var rules = new MultiBallRules(Maze.original(), 3);
+        long state = rules.pack(10, 40, 20);
+        assertEquals(state, rules.pack(10, 20, 40));
+        assertArrayEquals(new int[] {10, 20, 40}, rules.unpack(state));
+        assertEquals(rules.hash(state), rules.hash(rules.pack(10, 20, 40)));
+        assertNotEquals(state, rules.pack(20, 10, 40));
+    }
+
+    @Test
+    void pack_invalid() {
+        var rules = new MultiBallRules(Maze.original(), 2);
+        assertThrows(IllegalArgumentException.class, () -> rules.pack(1));
+        assertThrows(IllegalArgumentException.class, () -> rules.pack(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> rules.pack(1, 49));
+        assertThrows(IllegalArgumentException.class, () -> new MultiBallRules(Maze.original(), 5));
+        assertDoesNotThrow(() -> new MultiBallRules(new Maze(new Board(256, 256), 0, 1), 4));
+        assertThrows(IllegalArgumentException.class, () -> new MultiBallRules(new Maze(new Board(257, 256), 0, 1), 4));
+    }
+
+    @Test
+    void tilt_ballsBlockEachOther() {
+        var rules = new MultiBallRules(new Maze(new Board(1, 4), 0, 3), 2);
+        long state = rules.pack(0, 1);
+        assertArrayEquals(new int[] {2, 3}, rules.unpack(rules.tilt(state, Direction.RIGHT)));
+        assertEquals(state, rules.tilt(state, Direction.LEFT));
+        assertEquals(state, rules.tilt(state, Direction.UP));
+        assertArrayEquals(new int[] {1, 0}, rules.unpack(rules.tilt(rules.pack(3, 2), Direction.LEFT)));
+    }
+
+    @Test
+    void tilt_vertical() {
+        var board = new Board(4, 2);
+        var rules = new MultiBallRules(new Maze(board, 0, board.cell(2, 0)), 3);
+        long state = rules.tilt(rules.pack(board.cell(0, 0), board.cell(2, 0), board.cell(1, 1)), Direction.DOWN);
+        assertArrayEquals(new int[] {board.cell(2, 0), board.cell(3, 0), board.cell(3, 1)}, rules.unpack(state));
+        assertTrue(rules.isSolved(state));
+    }
+
+    @Test
+    void tilt_verticalOnLargeBoard() {
+        var board = new Board(1400, 1400);
+        var rules = new MultiBallRules(new Maze(board, 0, board.cell(1399, 1399)), 2);
+        long state = rules.tilt(rules.pack(board.cell(0, 0), board.cell(1399, 0)), Direction.DOWN);
+        assertArrayEquals(new int[] {board.cell(1398, 0), board.cell(1399, 0)}, rules.unpack(state));
+        state = rules.tilt(rules.pack(board.cell(1399, 0), board.cell(0, 0)), Direction.UP);
+        assertArrayEquals(new int[] {board.cell(1, 0), board.cell(0, 0)}, rules.unpack(state));
+    }
+
+    @Test
+    void tilt_singleBallMatchesSlideTable() {
+        var maze = Maze.original();
+        var board = maze.getBoard();
+        var rules = new MultiBallRules(maze, 1);
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            for (Direction direction : Direction.values()) {
+                assertEquals(board.getSlideTable().destination(cell, direction),
+                        rules.ball(rules.tilt(rules.pack(cell), direction), 0));
+            }
+        }
+    }
+}
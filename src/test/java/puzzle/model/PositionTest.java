@@ -47,6 +47,14 @@ class PositionTest {
         assertPosition(position.row(), position.col() - 1, position.moveLeft());
     }
 
+    @Test
+    void of() {
+        assertPosition(3, 5, Position.of(3, 5));
+        assertSame(Position.of(3, 5), Position.of(3, 5));
+        assertSame(Position.of(1, 3), position.moveLeft());
+        assertEquals(new Position(-1, Position.CACHE_SIZE), Position.of(-1, Position.CACHE_SIZE));
+    }
+
     @Test
     void testToString() {
         assertEquals(String.format("(%d, %d)", position.row(), position.col()), position.toString());
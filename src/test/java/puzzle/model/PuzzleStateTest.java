@@ -20,10 +20,10 @@ class PuzzleStateTest {
         PuzzleState state = new PuzzleState();
         var walls = state.getWalls();
 
-        assertTrue(walls.contains(new WallPosition(1, 2, PuzzleState.Wall.HORIZONTAL)));
-        assertTrue(walls.contains(new WallPosition(1, 6, PuzzleState.Wall.HORIZONTAL)));
-        assertTrue(walls.contains(new WallPosition(0, 0, PuzzleState.Wall.VERTICAL)));
-        assertTrue(walls.contains(new WallPosition(0, 3, PuzzleState.Wall.VERTICAL)));
+        assertTrue(walls.contains(new WallPosition(1, 2, Wall.HORIZONTAL)));
+        assertTrue(walls.contains(new WallPosition(1, 6, Wall.HORIZONTAL)));
+        assertTrue(walls.contains(new WallPosition(0, 0, Wall.VERTICAL)));
+        assertTrue(walls.contains(new WallPosition(0, 3, Wall.VERTICAL)));
     }
 
     @Test
@@ -0,0 +1,81 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlideTableTest {
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(5, 6);
+        board.addWall(0, 2, Direction.RIGHT);
+        board.addWall(3, 1, Direction.DOWN);
+        board.addWall(2, 4, Direction.UP);
+        board.addWall(4, 5, Direction.LEFT);
+    }
+
+    @Test
+    void destination_matchesRoll() {
+        var table = board.getSlideTable();
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            for (Direction direction : Direction.values()) {
+                assertEquals(board.roll(cell, direction), table.destination(cell, direction));
+            }
+        }
+    }
+
+    @Test
+    void legalMoveSet() {
+        var table = board.getSlideTable();
+        assertEquals(EnumSet.of(Direction.DOWN, Direction.LEFT), table.legalMoveSet(board.cell(0, 2)));
+        assertEquals(EnumSet.of(Direction.RIGHT, Direction.DOWN), table.legalMoveSet(board.cell(0, 0)));
+        assertSame(table.legalMoveSet(board.cell(0, 0)), table.legalMoveSet(board.cell(0, 3)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> table.legalMoveSet(board.cell(0, 0)).add(Direction.UP));
+    }
+
+    @Test
+    void getSlideTable_repairedAfterWallChange() {
+        var table = board.getSlideTable();
+        assertSame(table, board.getSlideTable());
+        board.addWall(0, 0, Direction.RIGHT);
+        assertSame(table, board.getSlideTable());
+        assertEquals(board.getVersion(), table.getVersion());
+        assertEquals(board.cell(0, 0), table.destination(board.cell(0, 0), Direction.RIGHT));
+        board.setWallBits(new long[1], new long[1]);
+        var rebuilt = board.getSlideTable();
+        assertNotSame(table, rebuilt);
+        assertEquals(board.cell(0, 5), rebuilt.destination(board.cell(0, 0), Direction.RIGHT));
+    }
+
+    @Test
+    void repair_matchesRebuiltTable() {
+        var table = board.getSlideTable();
+        var random = new Random(7);
+        var directions = Direction.values();
+        for (int i = 0; i < 200; i++) {
+            int row = random.nextInt(board.getRows());
+            int col = random.nextInt(board.getCols());
+            var side = directions[random.nextInt(directions.length)];
+            if (random.nextBoolean()) {
+                board.addWall(row, col, side);
+            } else {
+                board.removeWall(row, col, side);
+            }
+            var expected = new SlideTable(board);
+            for (int cell = 0; cell < board.getCellCount(); cell++) {
+                for (Direction direction : directions) {
+                    assertEquals(expected.destination(cell, direction), table.destination(cell, direction));
+                }
+                assertEquals(expected.legalMoves(cell), table.legalMoves(cell));
+            }
+        }
+        assertSame(table, board.getSlideTable());
+    }
+}
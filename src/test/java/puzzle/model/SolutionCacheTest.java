@@ -0,0 +1,96 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void key() {
+        var maze = Maze.original();
+        assertEquals(64, SolutionCache.key(maze).length());
+        assertEquals(SolutionCache.key(maze), SolutionCache.key(Maze.original()));
+        assertNotEquals(SolutionCache.key(maze), SolutionCache.key(new Maze(maze.getBoard(), 0, maze.getGoal())));
+        var copy = maze.copy();
+        copy.getBoard().addWall(0, 0, Direction.DOWN);
+        assertNotEquals(SolutionCache.key(maze), SolutionCache.key(copy));
+    }
+
+    @Test
+    void getOrCompute_roundTrip() throws IOException {
+        var cache = new SolutionCache(tempDir, 1 << 20);
+        assertTrue(cache.get(Maze.original()).isEmpty());
+        var computed = cache.getOrCompute(Maze.original());
+        assertEquals(18, computed.length());
+        var maze = Maze.original();
+        var cached = cache.get(maze).orElseThrow();
+        assertEquals(computed.moves(), cached.moves());
+        assertEquals(18, cached.length());
+        assertSame(cached.oracle(), maze.getDistanceOracle());
+        var expected = new DistanceOracle(maze.getBoard(), maze.getGoal());
+        for (int cell = 0; cell < maze.getBoard().getCellCount(); cell++) {
+            assertEquals(expected.distance(cell), cached.oracle().distance(cell));
+            assertEquals(expected.nextMove(cell), cached.oracle().nextMove(cell));
+        }
+    }
+
+    @Test
+    void getOrCompute_unsolvable() throws IOException {
+        var board = new Board(1, 3);
+        board.addWall(0, 0, Direction.RIGHT);
+        var maze = new Maze(board, 0, 2);
+        var cache = new SolutionCache(tempDir, 1 << 20);
+        cache.getOrCompute(maze);
+        var cached = cache.get(maze).orElseThrow();
+        assertEquals(DistanceOracle.UNREACHABLE, cached.length());
+        assertTrue(cached.moves().isEmpty());
+    }
+
+    @Test
+    void get_corruptEntryIsMiss() throws IOException {
+        var cache = new SolutionCache(tempDir, 1 << 20);
+        var maze = Maze.original();
+        cache.getOrCompute(maze);
+        var file = tempDir.resolve(SolutionCache.key(maze) + ".sol");
+        Files.write(file, new byte[] {1, 2, 3});
+        assertTrue(cache.get(maze).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsed() throws IOException {
+        var first = Maze.original();
+        var cache = new SolutionCache(tempDir, 1 << 20);
+        cache.getOrCompute(first);
+        long entrySize = Files.size(tempDir.resolve(SolutionCache.key(first) + ".sol"));
+        cache = new SolutionCache(tempDir, 2 * entrySize);
+        var second = new Maze(first.getBoard(), 0, first.getGoal());
+        var third = new Maze(first.getBoard(), 1, first.getGoal());
+        cache.getOrCompute(second);
+        Files.setLastModifiedTime(tempDir.resolve(SolutionCache.key(first) + ".sol"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(tempDir.resolve(SolutionCache.key(second) + ".sol"), FileTime.fromMillis(2000));
+        cache.get(first);
+        cache.getOrCompute(third);
+        assertTrue(cache.get(first).isPresent());
+        assertTrue(cache.get(second).isEmpty());
+        assertTrue(cache.get(third).isPresent());
+    }
+
+    @Test
+    void getOrCompute_rejectsMazesLargerThanTheLimit() throws IOException {
+        var cache = new SolutionCache(tempDir, 4096);
+        assertTrue(cache.fits(Maze.original()));
+        var large = new Maze(new Board(40, 40), 0, 1599);
+        assertFalse(cache.fits(large));
+        assertThrows(IllegalArgumentException.class, () -> cache.getOrCompute(large));
+    }
+}
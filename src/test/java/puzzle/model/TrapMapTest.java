@@ -0,0 +1,59 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrapMapTest {
+
+    @Test
+    void isTrap_matchesDistanceOracle() {
+        var generator = new MazeGenerator(25, 25, 0.3, 1, 100);
+        for (long seed = 0; seed < 20; seed++) {
+            var maze = generator.generate(seed);
+            var traps = new TrapMap(maze.getBoard(), maze.getGoal());
+            var oracle = maze.getDistanceOracle();
+            int count = 0;
+            for (int cell = 0; cell < maze.getBoard().getCellCount(); cell++) {
+                assertEquals(!oracle.isSolvable(cell), traps.isTrap(cell));
+                if (traps.isTrap(cell)) {
+                    count++;
+                }
+            }
+            assertEquals(count, traps.getTrapCount());
+        }
+    }
+
+    @Test
+    void component_corridor() {
+        // The ball rolls between both ends, the middle cell can only be left.
+        var board = new Board(1, 3);
+        var traps = new TrapMap(board, 1);
+        assertEquals(2, traps.getComponentCount());
+        assertEquals(traps.component(0), traps.component(2));
+        assertNotEquals(traps.component(0), traps.component(1));
+        assertFalse(traps.isTrap(1));
+        assertTrue(traps.isTrap(0));
+        assertTrue(traps.isTrap(2));
+        assertEquals(2, traps.getTrapCount());
+    }
+
+    @Test
+    void isTrap_original() {
+        var traps = Maze.original().getTrapMap();
+        assertFalse(traps.isTrap(Maze.original().getStart()));
+        assertFalse(traps.isTrap(Maze.original().getGoal()));
+    }
+
+    @Test
+    void getTrapMap_cachedUntilWallsChange() {
+        var maze = new Maze(new Board(1, 3), 0, 2);
+        var traps = maze.getTrapMap();
+        assertSame(traps, maze.getTrapMap());
+        assertFalse(traps.isTrap(0));
+        maze.getBoard().addWall(0, 0, Direction.RIGHT);
+        assertNotSame(traps, maze.getTrapMap());
+        assertTrue(maze.getTrapMap().isTrap(0));
+    }
+}
@@ -0,0 +1,61 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WallIndexTest {
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board(3, 70);
+        board.addWall(1, 0, Direction.UP);
+        board.addWall(1, 63, Direction.RIGHT);
+        board.addWall(1, 64, Direction.UP);
+        board.addWall(2, 69, Direction.UP);
+    }
+
+    private Set<WallPosition> collect(WallIndex index, int fromRow, int fromCol, int toRow, int toCol) {
+        Set<WallPosition> walls = new HashSet<>();
+        index.forEach(fromRow, fromCol, toRow, toCol, (row, col, wall) -> walls.add(new WallPosition(row, col, wall)));
+        return walls;
+    }
+
+    @Test
+    void hasWall() {
+        var index = board.getWallIndex();
+        assertTrue(index.hasWall(1, 0, Direction.UP));
+        assertTrue(index.hasWall(0, 0, Direction.DOWN));
+        assertTrue(index.hasWall(1, 63, Direction.RIGHT));
+        assertTrue(index.hasWall(1, 64, Direction.LEFT));
+        assertFalse(index.hasWall(1, 0, Direction.LEFT));
+        assertFalse(index.hasWall(2, 69, Direction.DOWN));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void forEach() {
+        var index = board.getWallIndex();
+        assertEquals(Set.of(new WallPosition(1, 0, Wall.HORIZONTAL),
+                new WallPosition(1, 63, Wall.VERTICAL),
+                new WallPosition(1, 64, Wall.HORIZONTAL),
+                new WallPosition(2, 69, Wall.HORIZONTAL)), collect(index, 0, 0, 3, 70));
+        assertEquals(Set.of(new WallPosition(1, 63, Wall.VERTICAL),
+                new WallPosition(1, 64, Wall.HORIZONTAL)), collect(index, 1, 60, 2, 66));
+        assertEquals(Set.of(), collect(index, 0, 1, 3, 63));
+    }
+
+    @Test
+    void getWallIndex_isSnapshot() {
+        var index = board.getWallIndex();
+        assertSame(index, board.getWallIndex());
+        board.removeWall(1, 0, Direction.UP);
+        assertTrue(index.hasWall(1, 0, Direction.UP));
+        assertFalse(board.getWallIndex().hasWall(1, 0, Direction.UP));
+    }
+}
@@ -0,0 +1,56 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Board;
+import puzzle.model.HeadlessPuzzleState;
+import puzzle.model.Maze;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AStarSearchTest {
+    private final MazeSolver solver = new AStarSearch();
+
+    private boolean solves(Maze maze, Solution solution) {
+        var state = new HeadlessPuzzleState(maze);
+        for (var move : solution.moves()) {
+            if (!state.isLegalMove(move)) {
+                return false;
+            }
+            state.makeMove(move);
+        }
+        return state.isSolved();
+    }
+
+    @Test
+    void solve_original() {
+        var solution = solver.solve(Maze.original()).orElseThrow();
+        assertEquals(18, solution.length());
+        assertTrue(solves(Maze.original(), solution));
+    }
+
+    @Test
+    void solve_matchesBreadthFirstSearchLength() {
+        var generator = new MazeGenerator(30, 30, 0.2, 5, 100);
+        var bfs = new CellBreadthFirstSearch();
+        for (long seed = 0; seed < 20; seed++) {
+            var maze = generator.generate(seed);
+            var expected = bfs.solve(maze).orElseThrow();
+            var actual = solver.solve(maze).orElseThrow();
+            assertEquals(expected.length(), actual.length());
+            assertTrue(solves(maze, actual));
+        }
+    }
+
+    @Test
+    void solve_trapStartNotExpanded() {
+        var stats = new SolveStats[1];
+        var maze = new Maze(new Board(1, 3), 0, 1);
+        assertTrue(solver.solve(maze, 0, result -> stats[0] = result).isEmpty());
+        assertTrue(maze.cachedTrapMap().isEmpty());
+        assertTrue(stats[0].nodesExpanded() > 0);
+        maze.getTrapMap();
+        assertTrue(solver.solve(maze, 0, result -> stats[0] = result).isEmpty());
+        assertEquals(0, stats[0].nodesExpanded());
+    }
+}
@@ -0,0 +1,66 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Maze;
+import puzzle.model.MazeIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void listMazes_directory() throws IOException {
+        MazeIO.writeBinary(Maze.original(), tempDir.resolve("b.maze"));
+        MazeIO.writeBinary(Maze.original(), tempDir.resolve("a.maze"));
+        Files.writeString(tempDir.resolve("notes.txt"), "not a maze");
+        assertEquals(List.of(tempDir.resolve("a.maze"), tempDir.resolve("b.maze")),
+                BatchSolver.listMazes(tempDir));
+    }
+
+    @Test
+    void listMazes_manifest() throws IOException {
+        var manifest = tempDir.resolve("pack.txt");
+        Files.writeString(manifest, "# level pack\nfirst.maze\n\nlevels/second.txt\n");
+        assertEquals(List.of(tempDir.resolve("first.maze").toAbsolutePath(),
+                        tempDir.resolve("levels/second.txt").toAbsolutePath()),
+                BatchSolver.listMazes(manifest));
+    }
+
+    @Test
+    void solveAll() throws IOException, InterruptedException {
+        new MazeGenerator(30, 30, 0.2, 5, 100).writeAll(42, 20, tempDir);
+        Files.writeString(tempDir.resolve("broken.maze"), "MAZE 2 x\n");
+        var files = BatchSolver.listMazes(tempDir);
+        var results = new ArrayList<BatchResult>();
+        new BatchSolver(new CellBreadthFirstSearch(), 1000).solveAll(files, results::add);
+        assertEquals(21, results.size());
+        for (var result : results) {
+            if (result.id().equals("broken")) {
+                assertFalse(result.solved());
+                assertNotNull(result.error());
+                continue;
+            }
+            var maze = MazeIO.read(tempDir.resolve(result.id() + ".maze"));
+            assertTrue(result.solved());
+            assertNull(result.error());
+            assertEquals(maze.getDistanceOracle().distance(maze.getStart()), result.length());
+            assertEquals(result.length(), result.moves().size());
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchSolver(new CellBreadthFirstSearch(), 0));
+    }
+}
@@ -0,0 +1,50 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Board;
+import puzzle.model.HeadlessPuzzleState;
+import puzzle.model.Maze;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalSearchTest {
+    private final MazeSolver solver = new BidirectionalSearch();
+
+    private boolean solves(Maze maze, Solution solution) {
+        var state = new HeadlessPuzzleState(maze);
+        for (var move : solution.moves()) {
+            if (!state.isLegalMove(move)) {
+                return false;
+            }
+            state.makeMove(move);
+        }
+        return state.isSolved();
+    }
+
+    @Test
+    void solve_original() {
+        var solution = solver.solve(Maze.original()).orElseThrow();
+        assertEquals(18, solution.length());
+        assertTrue(solves(Maze.original(), solution));
+    }
+
+    @Test
+    void solve_matchesBreadthFirstSearchLength() {
+        var generator = new MazeGenerator(25, 40, 0.25, 3, 100);
+        var bfs = new CellBreadthFirstSearch();
+        for (long seed = 0; seed < 30; seed++) {
+            var maze = generator.generate(seed);
+            var expected = bfs.solve(maze).orElseThrow();
+            var actual = solver.solve(maze).orElseThrow();
+            assertEquals(expected.length(), actual.length());
+            assertTrue(solves(maze, actual));
+        }
+    }
+
+    @Test
+    void solve_unsolvable() {
+        var board = new Board(3, 3);
+        assertTrue(solver.solve(new Maze(board, 0, board.cell(1, 1))).isEmpty());
+    }
+}
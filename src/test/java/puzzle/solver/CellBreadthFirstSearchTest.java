@@ -0,0 +1,67 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.HeadlessPuzzleState;
+import puzzle.model.Maze;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static puzzle.model.Direction.*;
+
+class CellBreadthFirstSearchTest {
+    private final MazeSolver solver = new CellBreadthFirstSearch();
+
+    @Test
+    void solve_original() {
+        var solution = solver.solve(Maze.original()).orElseThrow();
+        assertEquals(List.of(RIGHT, DOWN, LEFT, DOWN, LEFT, UP, LEFT, DOWN, LEFT,
+                UP, RIGHT, UP, RIGHT, UP, LEFT, DOWN, RIGHT, DOWN), solution.moves());
+        var state = new HeadlessPuzzleState();
+        for (Direction move : solution.moves()) {
+            assertTrue(state.isLegalMove(move));
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @Test
+    void solve_fromGoal() {
+        var maze = Maze.original();
+        assertEquals(List.of(), solver.solve(maze, maze.getGoal()).orElseThrow().moves());
+    }
+
+    @Test
+    void solve_unsolvable() {
+        var board = new Board(3, 3);
+        // the center can be reached from no cell
+        assertTrue(solver.solve(new Maze(board, 0, board.cell(1, 1))).isEmpty());
+    }
+
+    @Test
+    void solve_reportsStats() {
+        var stats = new ArrayList<SolveStats>();
+        var solution = solver.solve(Maze.original(), Maze.original().getStart(), stats::add).orElseThrow();
+        assertEquals(1, stats.size());
+        var result = stats.get(0);
+        assertEquals(solution.nodesExpanded(), result.nodesExpanded());
+        assertTrue(result.nodesGenerated() >= result.nodesExpanded());
+        assertTrue(result.duplicates() < result.nodesGenerated());
+        assertTrue(result.peakFrontier() > 0);
+        assertTrue(result.peakVisitedBytes() >= 5 * 49);
+        assertTrue(result.wallNanos() > 0);
+    }
+
+    @Test
+    void solve_reportsStatsWithoutSolution() {
+        var stats = new ArrayList<SolveStats>();
+        assertTrue(solver.solve(new Maze(new Board(1, 3), 0, 1), 0, stats::add).isEmpty());
+        assertEquals(1, stats.size());
+        assertEquals(2, stats.get(0).nodesExpanded());
+        assertEquals(2, stats.get(0).nodesGenerated());
+        assertEquals(1, stats.get(0).duplicates());
+    }
+}
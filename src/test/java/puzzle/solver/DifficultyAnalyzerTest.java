@@ -0,0 +1,88 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.MazeIO;
+import puzzle.model.SolutionCache;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void analyze_corridor() throws IOException {
+        var profile = new DifficultyAnalyzer().analyze("corridor", new Maze(new Board(1, 3), 0, 2));
+        assertEquals(new DifficultyProfile("corridor", 3, 1, 1, 2, 1.0, 0.0, null), profile);
+    }
+
+    @Test
+    void analyze_unsolvable() throws IOException {
+        var board = new Board(1, 3);
+        board.addWall(0, 0, Direction.RIGHT);
+        var profile = new DifficultyAnalyzer().analyze("walled", new Maze(board, 0, 2));
+        assertEquals(new DifficultyProfile("walled", 3, -1, 0, 1, 0.0, 1.0, null), profile);
+    }
+
+    @Test
+    void analyze_original() throws IOException {
+        var profile = new DifficultyAnalyzer().analyze("original", Maze.original());
+        assertEquals(18, profile.optimalLength());
+        assertEquals(1, profile.optimalSolutions());
+        assertTrue(profile.reachableStops() > 18);
+        assertTrue(profile.branchingFactor() >= 1 && profile.branchingFactor() <= 4);
+        assertTrue(profile.deadEndFraction() >= 0 && profile.deadEndFraction() < 1);
+    }
+
+    @Test
+    void analyzeAll_withCache() throws IOException {
+        new MazeGenerator(20, 20, 0.2, 5, 100).writeAll(7, 10, tempDir);
+        Files.writeString(tempDir.resolve("broken.maze"), "MAZE 2 x\n");
+        var files = BatchSolver.listMazes(tempDir);
+        var expected = new DifficultyAnalyzer().analyzeAll(files);
+        var cache = new SolutionCache(tempDir.resolve("cache"), 1 << 20);
+        assertEquals(expected, new DifficultyAnalyzer(cache).analyzeAll(files));
+        try (var entries = Files.list(tempDir.resolve("cache"))) {
+            assertEquals(0, entries.count());
+        }
+        assertEquals(expected, new DifficultyAnalyzer(cache, true).analyzeAll(files));
+        try (var entries = Files.list(tempDir.resolve("cache"))) {
+            assertEquals(files.size() - 1, entries.count());
+        }
+        assertEquals(expected, new DifficultyAnalyzer(cache).analyzeAll(files));
+        assertEquals("broken", expected.get(0).id());
+        assertNotNull(expected.get(0).error());
+        for (var profile : expected.subList(1, expected.size())) {
+            var maze = MazeIO.read(tempDir.resolve(profile.id() + ".maze"));
+            assertNull(profile.error());
+            assertEquals(maze.getDistanceOracle().distance(maze.getStart()), profile.optimalLength());
+        }
+    }
+
+    @Test
+    void writeReport_hardestFirst() throws IOException {
+        var out = new StringWriter();
+        DifficultyAnalyzer.writeReport(List.of(
+                new DifficultyProfile("easy", 9, 2, 3, 5, 2.0, 0.25, null),
+                DifficultyProfile.failed("broken", "bad, header"),
+                new DifficultyProfile("hard", 9, 7, 1, 8, 1.5, 0.0, null)), out);
+        assertEquals("""
+                id,cells,optimal_length,optimal_solutions,reachable_stops,branching_factor,dead_end_fraction,error
+                hard,9,7,1,8,1.5000,0.0000,
+                easy,9,2,3,5,2.0000,0.2500,
+                broken,0,-1,0,0,0.0000,0.0000,"bad, header"
+                """, out.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Board;
+import puzzle.model.HeadlessPuzzleState;
+import puzzle.model.Maze;
+
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdaStarSearchTest {
+
+    private boolean solves(Maze maze, Solution solution) {
+        var state = new HeadlessPuzzleState(maze);
+        for (var move : solution.moves()) {
+            if (!state.isLegalMove(move)) {
+                return false;
+            }
+            state.makeMove(move);
+        }
+        return state.isSolved();
+    }
+
+    @Test
+    void solve_original() {
+        var solution = new IdaStarSearch().solve(Maze.original()).orElseThrow();
+        assertEquals(18, solution.length());
+        assertTrue(solves(Maze.original(), solution));
+    }
+
+    @Test
+    void solve_matchesBreadthFirstSearchLength() {
+        var generator = new MazeGenerator(12, 12, 0.25, 5, 100);
+        var bfs = new CellBreadthFirstSearch();
+        var cached = new IdaStarSearch(256, () -> false, (bound, nodesExpanded) -> { });
+        for (long seed = 0; seed < 10; seed++) {
+            var maze = generator.generate(seed);
+            var expected = bfs.solve(maze).orElseThrow();
+            var actual = new IdaStarSearch().solve(maze).orElseThrow();
+            assertEquals(expected.length(), actual.length());
+            assertTrue(solves(maze, actual));
+            var withCache = cached.solve(maze).orElseThrow();
+            assertEquals(expected.length(), withCache.length());
+            assertTrue(solves(maze, withCache));
+        }
+    }
+
+    @Test
+    void solve_unsolvable() {
+        var board = new Board(1, 3);
+        assertTrue(new IdaStarSearch().solve(new Maze(board, 0, 1)).isEmpty());
+    }
+
+    @Test
+    void solve_state() {
+        var maze = Maze.original();
+        var board = maze.getBoard();
+        var moves = new IdaStarSearch().solve(new HeadlessPuzzleState(maze),
+                state -> RollingHeuristic.estimate(board, state.getBall(), state.getGoal())).orElseThrow();
+        assertEquals(18, moves.size());
+    }
+
+    @Test
+    void solve_reportsIterations() {
+        var bounds = new ArrayList<Integer>();
+        new IdaStarSearch(0, () -> false, (bound, nodesExpanded) -> bounds.add(bound)).solve(Maze.original());
+        assertFalse(bounds.isEmpty());
+        for (int i = 1; i < bounds.size(); i++) {
+            assertTrue(bounds.get(i - 1) < bounds.get(i));
+        }
+        assertTrue(bounds.get(bounds.size() - 1) < 18);
+    }
+
+    @Test
+    void solve_cancelled() {
+        var maze = new MazeGenerator(200, 200, 0.2, 40, 100).generate(1);
+        var solver = new IdaStarSearch(0, () -> true, (bound, nodesExpanded) -> { });
+        assertThrows(CancellationException.class, () -> solver.solve(maze));
+    }
+}
@@ -0,0 +1,66 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.MultiBallState;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiBallSearchTest {
+
+    private boolean solves(MultiBallState initial, Solution solution) {
+        var state = initial.clone();
+        for (var move : solution.moves()) {
+            if (!state.isLegalMove(move)) {
+                return false;
+            }
+            state.makeMove(move);
+        }
+        return state.isSolved();
+    }
+
+    @Test
+    void solve_singleBallMatchesBreadthFirstSearch() {
+        var generator = new MazeGenerator(10, 10, 0.25, 5, 100);
+        for (long seed = 0; seed < 5; seed++) {
+            var maze = generator.generate(seed);
+            var expected = new CellBreadthFirstSearch().solve(maze).orElseThrow();
+            var solution = new MultiBallSearch().solve(new MultiBallState(maze, maze.getStart())).orElseThrow();
+            assertEquals(expected.length(), solution.length());
+        }
+    }
+
+    @Test
+    void solve_usesOtherBallAsObstacle() {
+        // Alone, the ball rolls past the goal in the middle of the row.
+        var maze = new Maze(new Board(1, 5), 0, 3);
+        assertTrue(new CellBreadthFirstSearch().solve(maze).isEmpty());
+        var initial = new MultiBallState(maze, 0, 4);
+        var solution = new MultiBallSearch().solve(initial).orElseThrow();
+        assertEquals(List.of(Direction.RIGHT), solution.moves());
+        assertTrue(solves(initial, solution));
+    }
+
+    @Test
+    void solve_originalWithOtherBalls() {
+        var maze = Maze.original();
+        var initial = new MultiBallState(maze, maze.getStart(), 5, 30);
+        var stats = new SolveStats[1];
+        var solution = new MultiBallSearch(0).solve(initial, result -> stats[0] = result).orElseThrow();
+        assertTrue(solves(initial, solution));
+        assertEquals(solution.nodesExpanded(), stats[0].nodesExpanded());
+        assertTrue(solution.length() < 18);
+    }
+
+    @Test
+    void solve_unsolvable() {
+        var board = new Board(1, 3);
+        board.addWall(0, 0, Direction.RIGHT);
+        assertTrue(new MultiBallSearch().solve(new MultiBallState(new Maze(board, 0, 2), 0, 1)).isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Board;
+import puzzle.model.Direction;
+import puzzle.model.Maze;
+import puzzle.model.RollingBallEngine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalSolutionsTest {
+
+    @Test
+    void originalMaze() {
+        var maze = Maze.original();
+        var solutions = new OptimalSolutions(maze);
+        assertEquals(18, solutions.length());
+        assertTrue(solutions.count() > 0);
+        var seen = new HashSet<List<Direction>>();
+        for (var moves : solutions) {
+            assertEquals(18, moves.size());
+            var engine = new RollingBallEngine(maze.getBoard(), maze.getStart(), maze.getGoal());
+            for (var move : moves) {
+                assertTrue(engine.isLegalMove(move));
+                engine.makeMove(move);
+            }
+            assertTrue(engine.isSolved());
+            assertTrue(seen.add(moves));
+        }
+        assertEquals(solutions.count(), seen.size());
+        assertTrue(seen.contains(new CellBreadthFirstSearch().solve(maze).orElseThrow().moves()));
+    }
+
+    @Test
+    void openBoard() {
+        var board = new Board(3, 3);
+        var solutions = new OptimalSolutions(new Maze(board, board.cell(0, 0), board.cell(2, 2)));
+        assertEquals(2, solutions.count());
+        assertFalse(solutions.isUnique());
+        var iterator = solutions.iterator();
+        assertEquals(List.of(Direction.RIGHT, Direction.DOWN), iterator.next());
+        assertEquals(List.of(Direction.DOWN, Direction.RIGHT), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void startIsGoal() {
+        var board = new Board(2, 2);
+        var solutions = new OptimalSolutions(new Maze(board, 0, 1), 1);
+        assertTrue(solutions.isUnique());
+        assertEquals(List.of(List.of()), iterate(solutions));
+    }
+
+    @Test
+    void unsolvable() {
+        var board = new Board(1, 3);
+        var solutions = new OptimalSolutions(new Maze(board, 0, 1));
+        assertEquals(0, solutions.count());
+        assertEquals(-1, solutions.length());
+        assertEquals(List.of(), iterate(solutions));
+    }
+
+    private static List<List<Direction>> iterate(OptimalSolutions solutions) {
+        var paths = new ArrayList<List<Direction>>();
+        solutions.forEach(paths::add);
+        return paths;
+    }
+}
@@ -0,0 +1,63 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.generator.MazeGenerator;
+import puzzle.model.Direction;
+import puzzle.model.HeadlessPuzzleState;
+import puzzle.model.Maze;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBreadthFirstSearchTest {
+    private final MazeSolver solver = new ParallelBreadthFirstSearch(new ForkJoinPool(4));
+
+    private boolean solves(Maze maze, Solution solution) {
+        var state = new HeadlessPuzzleState(maze);
+        for (var move : solution.moves()) {
+            if (!state.isLegalMove(move)) {
+                return false;
+            }
+            state.makeMove(move);
+        }
+        return state.isSolved();
+    }
+
+    @Test
+    void solve_original() {
+        var solution = solver.solve(Maze.original()).orElseThrow();
+        assertEquals(18, solution.length());
+        assertTrue(solves(Maze.original(), solution));
+    }
+
+    @Test
+    void solve_matchesBreadthFirstSearchLength() {
+        var generator = new MazeGenerator(300, 300, 0.15, 20, 100);
+        var bfs = new CellBreadthFirstSearch();
+        for (long seed = 0; seed < 5; seed++) {
+            var maze = generator.generate(seed);
+            var expected = bfs.solve(maze).orElseThrow();
+            var actual = solver.solve(maze).orElseThrow();
+            assertEquals(expected.length(), actual.length());
+            assertTrue(solves(maze, actual));
+        }
+    }
+
+    @Test
+    void solve_reportsSameCountsAsSequentialSearch() {
+        var board = new MazeGenerator(300, 300, 0.2, 20, 100).generate(5).getBoard();
+        board.addWall(0, 0, Direction.RIGHT);
+        board.addWall(0, 0, Direction.DOWN);
+        var maze = new Maze(board, board.cell(150, 150), 0);
+        var expected = new ArrayList<SolveStats>();
+        var actual = new ArrayList<SolveStats>();
+        assertTrue(new CellBreadthFirstSearch().solve(maze, maze.getStart(), expected::add).isEmpty());
+        assertTrue(solver.solve(maze, maze.getStart(), actual::add).isEmpty());
+        assertEquals(expected.get(0).nodesExpanded(), actual.get(0).nodesExpanded());
+        assertEquals(expected.get(0).nodesGenerated(), actual.get(0).nodesGenerated());
+        assertEquals(expected.get(0).duplicates(), actual.get(0).duplicates());
+        assertEquals(expected.get(0).peakVisitedBytes(), actual.get(0).peakVisitedBytes());
+    }
+}
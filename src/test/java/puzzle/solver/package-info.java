@@ -0,0 +1,4 @@
+/**
+ * Contains tests for puzzle.solver package
+ */
+package puzzle.solver;